@@ -0,0 +1,38 @@
+package jobshop.benchmarks;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.BasicSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/** Decoding throughput of <code>ResourceOrder.toSchedule()</code> on the largest Taillard instances (100x20). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeBenchmark {
+
+    @Param({"ta71", "ta72", "ta73", "ta74", "ta75", "ta76", "ta77", "ta78", "ta79", "ta80"})
+    public String instanceName;
+
+    ResourceOrder order;
+
+    @Setup
+    public void setUp() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+        order = new ResourceOrder(new BasicSolver().solve(instance, Long.MAX_VALUE).get());
+    }
+
+    @Benchmark
+    public Optional<Schedule> decode() {
+        return order.toSchedule();
+    }
+}
@@ -0,0 +1,146 @@
+package jobshop.benchmarks;
+
+import jobshop.Instance;
+import jobshop.InstanceCache;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.encodings.Task;
+import jobshop.solvers.DescentSolver;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.Solver;
+import jobshop.solvers.TabouSolver;
+import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/** Throughput of the building blocks of the solvers, on instances of increasing size.
+ *
+ * All operations start from the solution of the EST_LRPT greedy solver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobshopBenchmark {
+
+    @Param({"ft10", "la40", "ta50", "ta80"})
+    public String instanceName;
+
+    Path path;
+    // cache in a temporary directory, that already contains the binary copy of the instance
+    InstanceCache cache;
+    Instance instance;
+    Schedule schedule;
+    ResourceOrder order;
+    Nowicki nowicki;
+
+    // exact evaluation of a swap, and dispatch of a parallel loop on a pool of two threads: their ratio gives the
+    // number of swaps from which TabouSolver evaluates an iteration in parallel
+    SwapEvaluator evaluator;
+    Nowicki.Swap swap;
+    ForkJoinPool pool;
+
+    // solvers that perform a single iteration from the greedy solution
+    Solver descent;
+    Solver tabou;
+    Solver parallelTabou;
+
+    @Setup
+    public void setUp() throws IOException {
+        path = Paths.get("instances", instanceName);
+        instance = Instance.fromFile(path);
+        cache = new InstanceCache(Files.createTempDirectory("cache"));
+        cache.load(path);
+        schedule = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get();
+        order = new ResourceOrder(schedule);
+        nowicki = new Nowicki();
+
+        Solver start = (instance, deadline) -> Optional.of(schedule);
+        descent = new DescentSolver(nowicki, start, 1);
+        tabou = new TabouSolver(nowicki, start, 1, 10);
+        parallelTabou = new TabouSolver(nowicki, start, 1, 10, 2);
+
+        evaluator = new SwapEvaluator(instance);
+        evaluator.reset(order);
+        swap = nowicki.allSwaps(evaluator.criticalBlocks()).get(0);
+        pool = new ForkJoinPool(2);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdownNow();
+        try (Stream<Path> files = Files.walk(cache.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Instance loadInstance() throws IOException {
+        return Instance.fromFile(path);
+    }
+
+    @Benchmark
+    public Instance loadCachedInstance() throws IOException {
+        return cache.load(path);
+    }
+
+    @Benchmark
+    public Optional<Schedule> decode() {
+        return order.toSchedule();
+    }
+
+    @Benchmark
+    public List<Task> criticalPath() {
+        return schedule.criticalPath();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return schedule.isValid();
+    }
+
+    @Benchmark
+    public List<Nowicki.Swap> allSwaps() {
+        return nowicki.allSwaps(order);
+    }
+
+    @Benchmark
+    public int swapMakespan() {
+        return evaluator.makespan(swap);
+    }
+
+    @Benchmark
+    public void forkJoinDispatch() throws InterruptedException, ExecutionException {
+        pool.submit(() -> IntStream.range(0, 4).parallel().forEach(i -> {})).get();
+    }
+
+    @Benchmark
+    public Optional<Schedule> descentIteration() {
+        return descent.solve(instance, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Optional<Schedule> tabouIteration() {
+        return tabou.solve(instance, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Optional<Schedule> parallelTabouIteration() {
+        return parallelTabou.solve(instance, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,184 @@
+package jobshop;
+
+import jobshop.encodings.ResourceOrder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/** Compact binary files for instances and solutions.
+ *
+ * All values are big-endian. An instance file contains:
+ *  - the magic number <code>INSTANCE_MAGIC</code> and the format version,
+ *  - the length of the name (2 bytes) followed by the name in UTF-8,
+ *  - the number of jobs and the number of tasks per job (4 bytes each),
+ *  - for each job and each task, the machine (2 bytes) and the duration (4 bytes).
+ *
+ * A solution file contains a ResourceOrder as the permutation of the jobs on each machine:
+ *  - the magic number <code>SOLUTION_MAGIC</code> and the format version,
+ *  - the number of jobs and the number of machines (4 bytes each),
+ *  - the makespan of the solution (4 bytes),
+ *  - for each machine, the jobs in the order in which they are executed on it (2 bytes each).
+ *
+ * Running this class converts text instances to binary ones:
+ *   java jobshop.BinaryFormat OUTPUT_DIR INSTANCE_FILE...
+ */
+public final class BinaryFormat {
+
+    /** First bytes of a binary instance file ("JSPI"). */
+    public static final int INSTANCE_MAGIC = 0x4A535049;
+    /** First bytes of a binary solution file ("JSPS"). */
+    public static final int SOLUTION_MAGIC = 0x4A535053;
+    /** Version of the format, to be increased on any incompatible change. */
+    public static final int VERSION = 1;
+
+    // machines and jobs are stored on two bytes
+    private static final int MAX_INDEX = 0xFFFF;
+
+    private BinaryFormat() {}
+
+    /** A solution read from a file: its resource order and the makespan recorded with it. */
+    public static final class Solution {
+        public final ResourceOrder order;
+        public final int makespan;
+
+        public Solution(ResourceOrder order, int makespan) {
+            this.order = order;
+            this.makespan = makespan;
+        }
+    }
+
+    /** Writes the instance in the binary format. */
+    public static void writeInstance(Instance instance, Path path) throws IOException {
+        if(instance.numMachines > MAX_INDEX)
+            throw new IOException("Too many machines for the binary format: " + instance.numMachines);
+        byte[] name = instance.name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 2 + name.length + 4 + 4 + 6 * instance.numJobs * instance.numTasks);
+        buffer.putInt(INSTANCE_MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+        buffer.putInt(instance.numJobs);
+        buffer.putInt(instance.numTasks);
+        for(int job = 0 ; job < instance.numJobs ; job++) {
+            for(int task = 0 ; task < instance.numTasks ; task++) {
+                buffer.putShort((short) instance.machine(job, task));
+                buffer.putInt(instance.duration(job, task));
+            }
+        }
+        write(buffer, path);
+    }
+
+    /** Reads an instance written by <code>writeInstance</code>. */
+    public static Instance readInstance(Path path) throws IOException {
+        ByteBuffer buffer = read(path);
+        checkHeader(buffer, INSTANCE_MAGIC, path);
+        byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(name);
+        int numJobs = buffer.getInt();
+        int numTasks = buffer.getInt();
+        Instance pb = new Instance(new String(name, StandardCharsets.UTF_8), numJobs, numTasks);
+        for(int job = 0 ; job < numJobs ; job++) {
+            for(int task = 0 ; task < numTasks ; task++) {
+                pb.machines[job][task] = Short.toUnsignedInt(buffer.getShort());
+                pb.durations[job][task] = buffer.getInt();
+            }
+        }
+        pb.index();
+        return pb;
+    }
+
+    /** Writes a complete resource order, with its makespan, in the binary format. */
+    public static void writeSolution(ResourceOrder order, int makespan, Path path) throws IOException {
+        Instance instance = order.instance;
+        if(instance.numJobs > MAX_INDEX)
+            throw new IOException("Too many jobs for the binary format: " + instance.numJobs);
+        ByteBuffer buffer = ByteBuffer.allocate(4 * 5 + 2 * instance.numMachines * instance.numJobs);
+        buffer.putInt(SOLUTION_MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(instance.numJobs);
+        buffer.putInt(instance.numMachines);
+        buffer.putInt(makespan);
+        for(int machine = 0 ; machine < instance.numMachines ; machine++) {
+            for(int i = 0 ; i < instance.numJobs ; i++) {
+                if(order.getTaskIdOfMachine(machine, i) < 0)
+                    throw new IOException("Only complete resource orders can be written");
+                buffer.putShort((short) order.getJobOfMachine(machine, i));
+            }
+        }
+        write(buffer, path);
+    }
+
+    /** Reads a solution of the given instance written by <code>writeSolution</code>.
+     * The resource order is not decoded: it is up to the caller to check that it is valid.
+     */
+    public static Solution readSolution(Instance instance, Path path) throws IOException {
+        ByteBuffer buffer = read(path);
+        checkHeader(buffer, SOLUTION_MAGIC, path);
+        int numJobs = buffer.getInt();
+        int numMachines = buffer.getInt();
+        if(numJobs != instance.numJobs || numMachines != instance.numMachines)
+            throw new IOException("Solution " + path + " is not a solution of instance " + instance.name);
+        int makespan = buffer.getInt();
+        ResourceOrder order = new ResourceOrder(instance);
+        for(int machine = 0 ; machine < numMachines ; machine++) {
+            for(int i = 0 ; i < numJobs ; i++) {
+                int job = Short.toUnsignedInt(buffer.getShort());
+                if(job >= numJobs)
+                    throw new IOException("Invalid job " + job + " in " + path);
+                order.addTaskToMachine(machine, job, instance.task_with_machine(job, machine));
+            }
+        }
+        return new Solution(order, makespan);
+    }
+
+    private static void checkHeader(ByteBuffer buffer, int magic, Path path) throws IOException {
+        if(buffer.remaining() < 8 || buffer.getInt() != magic)
+            throw new IOException("Not a binary file of the expected type: " + path);
+        int version = buffer.getInt();
+        if(version != VERSION)
+            throw new IOException("Unsupported version " + version + " of the binary format in " + path);
+    }
+
+    // binary files are small (12 KB for 100x20 tasks): reading them is several times faster than mapping them
+    private static ByteBuffer read(Path path) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(path));
+    }
+
+    // writes to a temporary file first, so that a reader never sees a partially written file
+    private static void write(ByteBuffer buffer, Path path) throws IOException {
+        buffer.flip();
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while(buffer.hasRemaining()) channel.write(buffer);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Converts text instance files to the binary format, in the given output directory. */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.err.println("Usage: java jobshop.BinaryFormat OUTPUT_DIR INSTANCE_FILE...");
+            System.exit(1);
+        }
+        Path output = Paths.get(args[0]);
+        for(int i = 1 ; i < args.length ; i++) {
+            Instance instance = Instance.fromFile(Paths.get(args[i]));
+            Path target = output.resolve(instance.name + ".bin");
+            writeInstance(instance, target);
+            System.out.println(args[i] + " -> " + target);
+        }
+    }
+}
@@ -3,11 +3,11 @@ package jobshop;
 import jobshop.encodings.Task;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
-import java.util.Iterator;
-import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 /** Represents an instance of a JobShop problem. */
 public final class Instance {
@@ -30,6 +30,19 @@ public final class Instance {
     /** Matrix containing the machine on which each task must be scheduled. */
     final int[][] machines;
 
+    // Data derived from the durations and machines, computed once by index() when the instance is loaded.
+    // Flattened arrays are indexed by task identifiers: job * numTasks + task.
+
+    // duration and machine of each task
+    private int[] flatDurations;
+    private int[] flatMachines;
+    // for each job j and machine m, taskOfMachine[j * numMachines + m] is the task of j running on m
+    private int[] taskOfMachine;
+    // for each job j and task t, remaining[j * (numTasks + 1) + t] is the total duration of tasks t..numTasks-1 of j
+    private int[] remaining;
+    // total duration of the tasks running on each machine
+    private int[] machineLoads;
+
     /** Duration of the given task. */
     public int duration(int job, int task) {
         return durations[job][task];
@@ -52,11 +65,42 @@ public final class Instance {
 
     /** Among the tasks of the given job, returns the task number of the one that uses the given machine. */
     public int task_with_machine(int job, int wanted_machine) {
-        for(int task = 0 ; task < numTasks ; task++) {
-            if(machine(job, task) == wanted_machine)
-                return task;
-        }
-        throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+        int task = taskOfMachine[job * numMachines + wanted_machine];
+        if(task < 0)
+            throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+        return task;
+    }
+
+    /** Identifier of the given task: <code>job * numTasks + task</code>. */
+    public int taskId(int job, int task) {
+        return job * numTasks + task;
+    }
+
+    /** Duration of the task with the given identifier. */
+    public int duration(int taskId) {
+        return flatDurations[taskId];
+    }
+
+    /** Machine on which the task with the given identifier must be scheduled. */
+    public int machine(int taskId) {
+        return flatMachines[taskId];
+    }
+
+    /** Total duration of the given task and of all the tasks that follow it in its job.
+     * The task can be <code>numTasks</code>, in which case the remaining work is 0.
+     */
+    public int remainingWork(int job, int task) {
+        return remaining[job * (numTasks + 1) + task];
+    }
+
+    /** Total duration of the tasks of the given job. */
+    public int jobLoad(int job) {
+        return remainingWork(job, 0);
+    }
+
+    /** Total duration of the tasks that must be scheduled on the given machine. */
+    public int machineLoad(int machine) {
+        return machineLoads[machine];
     }
 
     /**
@@ -74,27 +118,98 @@ public final class Instance {
         machines = new int[numJobs][numTasks];
     }
 
-    /** Parses a instance from a file. */
+    /** Parses a instance from a file.
+     *
+     * The file is memory-mapped and parsed in a single pass, without creating any intermediate string. Everything
+     * from a <code>#</code> to the end of its line is a comment. The first line contains the number of jobs and the
+     * number of tasks per job, and each of the following lines describes a job as a sequence of
+     * (machine, duration) pairs. Any additional value at the end of a line is ignored.
+     */
     public static Instance fromFile(Path path) throws IOException {
         String name = path.getFileName().toString();
-        Iterator<String> lines = Files.readAllLines(path).stream()
-                .filter(l -> !l.startsWith("#"))
-                .collect(Collectors.toList())
-                .iterator();
-
-        Scanner header = new Scanner(lines.next());
-        int numJobs = header.nextInt();
-        int numTasks = header.nextInt();
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        Parser parser = new Parser(buffer, path);
+
+        int numJobs = parser.nextInt();
+        int numTasks = parser.nextInt();
+        parser.skipLine();
         Instance pb = new Instance(name, numJobs, numTasks);
 
         for(int job = 0 ; job<numJobs ; job++) {
-            Scanner line = new Scanner(lines.next());
             for(int task = 0 ; task < numTasks ; task++) {
-                pb.machines[job][task] = line.nextInt();
-                pb.durations[job][task] = line.nextInt();
+                pb.machines[job][task] = parser.nextInt();
+                pb.durations[job][task] = parser.nextInt();
             }
+            parser.skipLine();
         }
+        pb.index();
 
         return pb;
     }
+
+    /** Computes the derived data of the instance. Must be called once all durations and machines are set. */
+    void index() {
+        flatDurations = new int[numJobs * numTasks];
+        flatMachines = new int[numJobs * numTasks];
+        taskOfMachine = new int[numJobs * numMachines];
+        Arrays.fill(taskOfMachine, -1);
+        remaining = new int[numJobs * (numTasks + 1)];
+        machineLoads = new int[numMachines];
+        for(int job = 0 ; job < numJobs ; job++) {
+            for(int task = numTasks - 1 ; task >= 0 ; task--) {
+                int id = taskId(job, task);
+                flatDurations[id] = durations[job][task];
+                flatMachines[id] = machines[job][task];
+                taskOfMachine[job * numMachines + machines[job][task]] = task;
+                remaining[job * (numTasks + 1) + task] = remaining[job * (numTasks + 1) + task + 1] + durations[job][task];
+                machineLoads[machines[job][task]] += durations[job][task];
+            }
+        }
+    }
+
+    /** Reads the integers of an instance file directly from its bytes. */
+    private static final class Parser {
+        private final ByteBuffer buffer;
+        private final Path path;
+
+        Parser(ByteBuffer buffer, Path path) {
+            this.buffer = buffer;
+            this.path = path;
+        }
+
+        /** Skips blanks and comments, and parses the next (possibly negative) integer. */
+        int nextInt() throws IOException {
+            while(buffer.hasRemaining()) {
+                byte c = buffer.get();
+                if(c == '#') {
+                    skipLine();
+                } else if(c == '-' || (c >= '0' && c <= '9')) {
+                    boolean negative = c == '-';
+                    int value = negative ? 0 : c - '0';
+                    int digits = negative ? 0 : 1;
+                    while(buffer.hasRemaining()) {
+                        byte d = buffer.get(buffer.position());
+                        if(d < '0' || d > '9') break;
+                        value = value * 10 + (d - '0');
+                        digits++;
+                        buffer.get();
+                    }
+                    if(digits == 0) break;
+                    return negative ? -value : value;
+                } else if(c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                    throw new IOException("Unexpected character '" + (char) c + "' in " + path
+                            + " at offset " + (buffer.position() - 1));
+                }
+            }
+            throw new IOException("Missing value in " + path);
+        }
+
+        /** Skips the rest of the current line, including the end of line. */
+        void skipLine() {
+            while(buffer.hasRemaining() && buffer.get() != '\n');
+        }
+    }
 }
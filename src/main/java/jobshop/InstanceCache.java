@@ -0,0 +1,146 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Directory of binary copies of text instances, to avoid parsing the same text files on every run.
+ *
+ * The binary copy of a text file is named after a hash of its name and content, so that a modified file is never
+ * served from a stale copy. Hashing requires reading the whole text file, so the directory also contains an index
+ * that maps the path, size and last-modified time of each text file to its hash: as long as these attributes do not
+ * change, the binary copy is loaded without reading the text file. As for build tools, a modification that keeps
+ * both the size and the last-modified time is not noticed.
+ * Unused copies are never removed: the directory can be deleted at any time.
+ */
+public final class InstanceCache {
+
+    /** Name of the index file in the directory. */
+    static final String INDEX = "index";
+
+    /** Directory in which the binary instances are stored. */
+    public final Path directory;
+
+    /** Entries of the index by absolute path of the text file, read from the directory on first use. */
+    private Map<Path, Entry> index = null;
+
+    /** Creates a cache in the given directory, which is created when the first instance is stored. */
+    public InstanceCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /** Attributes of a text file when its hash was computed. */
+    private static final class Entry {
+        final long size;
+        final long modified;
+        final String key;
+
+        Entry(long size, long modified, String key) {
+            this.size = size;
+            this.modified = modified;
+            this.key = key;
+        }
+    }
+
+    /** Loads the text instance file, from its binary copy if there is one and creating it otherwise. */
+    public synchronized Instance load(Path textFile) throws IOException {
+        Path path = textFile.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        Entry entry = index().get(path);
+        if(entry != null && entry.size == attributes.size() && entry.modified == modified) {
+            Instance instance = readCopy(entry.key);
+            if(instance != null) return instance;
+        }
+
+        // unknown or modified file: its content is hashed, the copy may still exist if the content is unchanged
+        String key = key(textFile.getFileName().toString(), Files.readAllBytes(path));
+        Instance instance = readCopy(key);
+        if(instance == null) {
+            instance = Instance.fromFile(textFile);
+            BinaryFormat.writeInstance(instance, copyOf(key));
+        }
+        index.put(path, new Entry(attributes.size(), modified, key));
+        writeIndex();
+        return instance;
+    }
+
+    private Path copyOf(String key) {
+        return directory.resolve(key + ".bin");
+    }
+
+    // the binary copy with the given key, null if it does not exist or cannot be read
+    private Instance readCopy(String key) {
+        Path cached = copyOf(key);
+        if(!Files.exists(cached)) return null;
+        try {
+            return BinaryFormat.readInstance(cached);
+        } catch (IOException | RuntimeException e) {
+            // corrupted or incompatible copy, replaced by the caller
+            return null;
+        }
+    }
+
+    // one line per text file: size, last-modified time in nanoseconds, key and absolute path, separated by tabs
+    private Map<Path, Entry> index() throws IOException {
+        if(index != null) return index;
+        index = new HashMap<>();
+        Path file = directory.resolve(INDEX);
+        if(!Files.exists(file)) return index;
+        for(String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t", 4);
+            try {
+                index.put(Path.of(fields[3]), new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2]));
+            } catch (RuntimeException e) {
+                // corrupted line, the file is hashed again on its next load
+            }
+        }
+        return index;
+    }
+
+    // writes to a temporary file first, so that a concurrent run never reads a partially written index
+    private void writeIndex() throws IOException {
+        List<String> lines = new ArrayList<>(index.size());
+        for(Map.Entry<Path, Entry> e : index.entrySet()) {
+            Entry entry = e.getValue();
+            lines.add(entry.size + "\t" + entry.modified + "\t" + entry.key + "\t" + e.getKey());
+        }
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, INDEX, ".tmp");
+        try {
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, directory.resolve(INDEX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // hash of the name and content of an instance file, as an hexadecimal string
+    static String key(String name, byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(content);
+            StringBuilder sb = new StringBuilder();
+            byte[] hash = digest.digest();
+            // 128 bits are more than enough to avoid collisions
+            for(int i = 0 ; i < 16 ; i++) {
+                sb.append(String.format("%02x", hash[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package jobshop;
+
+import java.util.Arrays;
+
+/**
+ * Lower bounds of the optimal makespan of an instance.
+ * <p>
+ * Unlike the results of <code>BestKnownResults</code>, these bounds are proven: a solution whose makespan is equal to
+ * one of them is optimal and the search can stop.
+ * For a task, its release date (head) is the total duration of the previous tasks of its job, and its delivery time
+ * (tail) the total duration of the next tasks of its job.
+ */
+public final class LowerBounds {
+
+    private LowerBounds() {}
+
+    /** Best of all the bounds of this class. */
+    public static int of(Instance instance) {
+        return Math.max(jobBound(instance), jacksonBound(instance));
+    }
+
+    /** Total duration of the longest job. */
+    public static int jobBound(Instance instance) {
+        int bound = 0;
+        for(int job = 0 ; job < instance.numJobs ; job++) {
+            bound = Math.max(bound, instance.jobLoad(job));
+        }
+        return bound;
+    }
+
+    /** For each machine, smallest head plus total duration of its tasks plus smallest tail. */
+    public static int machineBound(Instance instance) {
+        int bound = 0;
+        for(int machine = 0 ; machine < instance.numMachines ; machine++) {
+            int minHead = Integer.MAX_VALUE;
+            int minTail = Integer.MAX_VALUE;
+            for(int job = 0 ; job < instance.numJobs ; job++) {
+                int task = instance.task_with_machine(job, machine);
+                minHead = Math.min(minHead, head(instance, job, task));
+                minTail = Math.min(minTail, tail(instance, job, task));
+            }
+            bound = Math.max(bound, minHead + instance.machineLoad(machine) + minTail);
+        }
+        return bound;
+    }
+
+    /** For each machine, optimal value of the one-machine relaxation with heads and tails where preemption is
+     * allowed, given by the schedule of Jackson: at any time, the available task with the largest tail is processed.
+     * It dominates the machine bound.
+     */
+    public static int jacksonBound(Instance instance) {
+        int bound = 0;
+        for(int machine = 0 ; machine < instance.numMachines ; machine++) {
+            bound = Math.max(bound, jacksonBound(instance, machine));
+        }
+        return bound;
+    }
+
+    /** Bound of the preemptive one-machine relaxation of the given machine. */
+    static int jacksonBound(Instance instance, int machine) {
+        int n = instance.numJobs;
+        int[] head = new int[n];
+        int[] duration = new int[n];
+        int[] tail = new int[n];
+        for(int job = 0 ; job < n ; job++) {
+            int task = instance.task_with_machine(job, machine);
+            head[job] = head(instance, job, task);
+            duration[job] = instance.duration(job, task);
+            tail[job] = tail(instance, job, task);
+        }
+        return preemptiveOneMachine(head, duration, tail);
+    }
+
+    /** Optimal value of a preemptive one-machine problem, where the i-th task is released at head[i], runs for
+     * duration[i] and is delivered tail[i] after its end. Any other heads and tails than the ones of the instance may
+     * be used, typically the ones of a partial solution.
+     * Searches that compute this bound repeatedly should reuse a <code>Preemptive</code> instead.
+     */
+    public static int preemptiveOneMachine(int[] head, int[] duration, int[] tail) {
+        return new Preemptive(head.length).bound(head, duration, tail);
+    }
+
+    /** Work arrays of the preemptive one-machine bound, allocated once for problems of a given number of tasks so
+     * that the bound can be computed at every node of a search without allocation. Tasks are sorted by head with a
+     * primitive sort, and the available tasks are kept in a binary heap of task indices.
+     * It should not be shared between threads.
+     */
+    public static final class Preemptive {
+        private final int[] remaining;
+        // head of each task in the high bits and its index in the low ones, sorted by head
+        private final long[] byHead;
+        // available tasks, the one with the largest tail first
+        private final int[] heap;
+        private int size;
+        // tails of the current problem, the keys of the heap
+        private int[] tail;
+
+        /** Creates the work arrays for problems of n tasks. */
+        public Preemptive(int n) {
+            remaining = new int[n];
+            byHead = new long[n];
+            heap = new int[n];
+        }
+
+        /** Same as <code>LowerBounds.preemptiveOneMachine</code>, the arrays must have n elements. */
+        public int bound(int[] head, int[] duration, int[] tail) {
+            int n = remaining.length;
+            assert head.length == n && duration.length == n && tail.length == n;
+            System.arraycopy(duration, 0, remaining, 0, n);
+            for(int i = 0 ; i < n ; i++) {
+                byHead[i] = ((long) head[i] << 32) | i;
+            }
+            Arrays.sort(byHead);
+            this.tail = tail;
+            size = 0;
+
+            int bound = 0;
+            int time = 0;
+            int next = 0;
+            while(next < n || size > 0) {
+                if(size == 0) {
+                    time = Math.max(time, headAt(next));
+                }
+                while(next < n && headAt(next) <= time) {
+                    push((int) byHead[next++]);
+                }
+                // the task with the largest tail runs until it completes or another task is released
+                int i = heap[0];
+                int release = next < n ? headAt(next) : Integer.MAX_VALUE;
+                int run = Math.min(remaining[i], release - time);
+                time += run;
+                remaining[i] -= run;
+                if(remaining[i] == 0) {
+                    pop();
+                    bound = Math.max(bound, time + tail[i]);
+                }
+            }
+            return bound;
+        }
+
+        private int headAt(int k) {
+            return (int) (byHead[k] >> 32);
+        }
+
+        private void push(int task) {
+            int k = size++;
+            while(k > 0) {
+                int parent = (k - 1) / 2;
+                if(tail[heap[parent]] >= tail[task]) break;
+                heap[k] = heap[parent];
+                k = parent;
+            }
+            heap[k] = task;
+        }
+
+        private void pop() {
+            int last = heap[--size];
+            int k = 0;
+            while(2 * k + 1 < size) {
+                int child = 2 * k + 1;
+                if(child + 1 < size && tail[heap[child + 1]] > tail[heap[child]]) child++;
+                if(tail[last] >= tail[heap[child]]) break;
+                heap[k] = heap[child];
+                k = child;
+            }
+            heap[k] = last;
+        }
+    }
+
+    private static int head(Instance instance, int job, int task) {
+        return instance.jobLoad(job) - instance.remainingWork(job, task);
+    }
+
+    private static int tail(Instance instance, int job, int task) {
+        return instance.remainingWork(job, task) - instance.duration(job, task);
+    }
+}
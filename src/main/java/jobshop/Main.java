@@ -7,11 +7,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import jobshop.encodings.Schedule;
 import jobshop.solvers.*;
 import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import net.sourceforge.argparse4j.inf.Namespace;
@@ -39,6 +42,27 @@ public class Main {
                 .required(true)
                 .help("Instance(s) to solve (space separated if more than one). All instances starting with the given " +
                         "string will be selected. (e.g. \"ft\" will select the instances ft06, ft10 and ft20.");
+        parser.addArgument("--parallel")
+                .nargs("?")
+                .setConst(Runtime.getRuntime().availableProcessors())
+                .setDefault(1)
+                .type(Integer.class)
+                .help("Number of (instance, solver) pairs to solve concurrently. Without a value, one per available " +
+                        "processor. Solvers that are themselves parallel (tabou_par_*, ptabou_*) should be run with " +
+                        "the default of 1 to avoid oversubscribing the processors.");
+        parser.addArgument("--cache")
+                .help("Directory in which binary copies of the instances are kept, so that their text files are " +
+                        "only parsed once. By default, instances are always parsed from their text files.");
+        parser.addArgument("--store")
+                .help("Directory in which the best solution found by each solver on each instance is recorded.");
+        parser.addArgument("--warm-start")
+                .action(Arguments.storeTrue())
+                .help("Start the descent and tabu solvers from the solutions recorded in the store (requires --store).");
+        parser.addArgument("-v", "--verbose")
+                .action(Arguments.storeTrue())
+                .help("Print the statistics of the solvers that provide some (e.g. iterations of each ptabou_* " +
+                        "worker, generations of memetic_*) on the standard error output, once the results of an " +
+                        "instance are printed.");
 
         // parse command line arguments
         Namespace ns = null;
@@ -63,7 +87,26 @@ public class Main {
         // Get the list of solvers that we should benchmark.
         // We also check that we have a solver available for the given name and print an error message otherwise.
         List<String> solversToTest = ns.getList("solver");
-        List<Solver> solvers = solversToTest.stream().map(Solver::getSolver).collect(Collectors.toList());
+        solversToTest.forEach(Solver::getSolver);
+
+        // binary copies of the instances, if requested
+        InstanceCache cache = ns.getString("cache") == null ? null : new InstanceCache(Paths.get(ns.getString("cache")));
+
+        // best solutions of previous runs, if requested
+        SolutionStore store = ns.getString("store") == null ? null : new SolutionStore(Paths.get(ns.getString("store")));
+        boolean warmStart = ns.getBoolean("warm_start");
+        if(warmStart && store == null) {
+            System.err.println("ERROR: --warm-start requires a solution store (--store).");
+            System.exit(1);
+        }
+
+        boolean verbose = ns.getBoolean("verbose");
+
+        int parallelism = ns.getInt("parallel");
+        if(parallelism < 1) {
+            System.err.println("ERROR: the number of parallel runs should be at least 1.");
+            System.exit(1);
+        }
 
         // retrieve all instances on which we should run the solvers.
         List<String> instances = new ArrayList<>();
@@ -97,50 +140,73 @@ public class Main {
             }
             output.println();
 
-            // for all instances, load it from f
+            // Submit all (instance, solver) pairs to a bounded pool. Each run computes its own deadline when it
+            // actually starts, so that waiting in the queue does not reduce its solving time.
+            // With a single thread, the runs are executed one after the other, in the order of the table.
+            ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+            List<Instance> loaded = new ArrayList<>();
+            List<List<Future<Run>>> runs = new ArrayList<>();
             for(String instanceName : instances) {
-                // get the best known result for this instance
-                int bestKnown = BestKnownResults.of(instanceName);
-
                 // load instance from file.
                 Path path = Paths.get("instances/", instanceName);
-                Instance instance = Instance.fromFile(path);
+                Instance instance = cache == null ? Instance.fromFile(path) : cache.load(path);
+                loaded.add(instance);
+
+                List<Future<Run>> instanceRuns = new ArrayList<>();
+                for(String solverName : solversToTest) {
+                    // a new solver object for each run, since solvers are not meant to be shared between threads
+                    Solver solver = Solver.getSolver(solverName, warmStart ? store : null);
+                    instanceRuns.add(pool.submit(() -> Run.of(solver, instance, solveTimeMs)));
+                }
+                runs.add(instanceRuns);
+            }
+            pool.shutdown();
+
+            // for all instances, print the results as soon as all solvers are done on it
+            for(int instanceId = 0 ; instanceId < instances.size() ; instanceId++) {
+                String instanceName = instances.get(instanceId);
+                Instance instance = loaded.get(instanceId);
+                // get the best known result for this instance
+                int bestKnown = BestKnownResults.of(instanceName);
 
                 // print some general statistics on the instance
                 output.printf("%-8s %-5s %4d      ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown);
 
-                // run all selected solvers on the instance and print the results
-                for(int solverId = 0 ; solverId < solvers.size() ; solverId++) {
-                    // Select the next solver to run. Given the solver name passed on the command line,
-                    // we lookup the `Main.solvers` hash map to get the solver object with the given name.
-                    Solver solver = solvers.get(solverId);
-
-                    // start chronometer and compute deadline for the solver to provide a result.
-                    long start = System.currentTimeMillis();
-                    long deadline = System.currentTimeMillis() + solveTimeMs;
-                    // run the solver on the current instance
-                    Optional<Schedule> result = solver.solve(instance, deadline);
-                    // measure elapsed time (in milliseconds)
-                    long runtime = System.currentTimeMillis() - start;
-
-                    // check that the solver returned a valid solution
-                    if(result.isEmpty() || !result.get().isValid()) {
+                // collect the results of all selected solvers on the instance and print them
+                for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
+                    Run run = runs.get(instanceId).get(solverId).get();
+
+                    // check that the solver returned a valid solution, independently of how it was built
+                    if(run.result.isEmpty() || !run.result.get().isValid()) {
                         System.err.println("ERROR: solver did not provide a valid schedule");
                         System.exit(1); // bug in implementation, bail out
                     }
                     // we have a valid schedule
-                    Schedule schedule = result.get();
+                    Schedule schedule = run.result.get();
+                    if(store != null) store.offer(instance, solversToTest.get(solverId), schedule);
 
                     // compute some statistics on the solution and print them.
                     int makespan = schedule.makespan();
                     float dist = 100f * (makespan - bestKnown) / (float) bestKnown;
-                    avg_runtimes[solverId] += (float) runtime / (float) instances.size();
+                    avg_runtimes[solverId] += (float) run.runtime / (float) instances.size();
                     avg_distances[solverId] += dist / (float) instances.size();
 
-                    output.printf("%7d %8s %5.1f        ", runtime, makespan, dist);
+                    output.printf("%7d %8s %5.1f        ", run.runtime, makespan, dist);
                     output.flush();
                 }
                 output.println();
+
+                // statistics are printed here rather than by the solvers, so that they do not interleave
+                if(verbose) {
+                    for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
+                        Run run = runs.get(instanceId).get(solverId).get();
+                        Optional<String> statistics = run.statistics();
+                        if(statistics.isPresent()) {
+                            output.flush();
+                            System.err.printf("%s on %s: %s%n", solversToTest.get(solverId), instanceName, statistics.get());
+                        }
+                    }
+                }
             }
 
 
@@ -158,4 +224,45 @@ public class Main {
             System.exit(1);
         }
     }
+
+    /** Result of a single solver on a single instance. */
+    private static final class Run {
+        final Solver solver;
+        final Optional<Schedule> result;
+        /** Time (in milliseconds) taken by the solver. */
+        final long runtime;
+
+        private Run(Solver solver, Optional<Schedule> result, long runtime) {
+            this.solver = solver;
+            this.result = result;
+            this.runtime = runtime;
+        }
+
+        /** Statistics reported by the solver on this run, if it provides some. */
+        Optional<String> statistics() {
+            if(solver instanceof ParallelTabouSolver) {
+                long[] iterations = ((ParallelTabouSolver) solver).iterationsPerWorker();
+                return Optional.of("tabu iterations per worker " + Arrays.toString(iterations));
+            }
+            if(solver instanceof MemeticSolver) {
+                MemeticSolver memetic = (MemeticSolver) solver;
+                double seconds = Math.max(1e-9, memetic.lastGenerationsNanos() / 1e9);
+                return Optional.of(String.format("%d generations (%.1f per second)",
+                        memetic.lastGenerations(), memetic.lastGenerations() / seconds));
+            }
+            return Optional.empty();
+        }
+
+        /** Runs the solver on the instance, with a deadline starting now. */
+        static Run of(Solver solver, Instance instance, long solveTimeMs) {
+            // start chronometer and compute deadline for the solver to provide a result.
+            long start = System.currentTimeMillis();
+            long deadline = System.currentTimeMillis() + solveTimeMs;
+            // run the solver on the current instance
+            Optional<Schedule> result = solver.solve(instance, deadline);
+            // measure elapsed time (in milliseconds)
+            long runtime = System.currentTimeMillis() - start;
+            return new Run(solver, result, runtime);
+        }
+    }
 }
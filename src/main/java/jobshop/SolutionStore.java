@@ -0,0 +1,71 @@
+package jobshop;
+
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.Solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/** Persistent store of the best solution found for each instance and solver configuration.
+ *
+ * Solutions are kept in the binary format of <code>BinaryFormat</code>, one file per instance and configuration:
+ * <code>DIRECTORY/INSTANCE/CONFIGURATION.sol</code>. The configuration is a free string, typically the name of a
+ * solver in <code>Solver.getSolver</code>.
+ *
+ * A stored solution is always decoded again before being used, so that a corrupted file or a file of another
+ * instance with the same name is simply ignored.
+ */
+public final class SolutionStore {
+
+    /** Directory in which the solutions are stored. */
+    public final Path directory;
+
+    /** Creates a store in the given directory, which is created when the first solution is recorded. */
+    public SolutionStore(Path directory) {
+        this.directory = directory;
+    }
+
+    private Path fileOf(Instance instance, String configuration) {
+        return directory.resolve(instance.name).resolve(configuration + ".sol");
+    }
+
+    /** Best solution recorded for the instance and configuration, if any. */
+    public synchronized Optional<Schedule> best(Instance instance, String configuration) {
+        Path file = fileOf(instance, configuration);
+        if(!Files.exists(file))
+            return Optional.empty();
+        try {
+            ResourceOrder order = BinaryFormat.readSolution(instance, file).order;
+            return order.toSchedule();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("WARNING: ignoring unreadable solution " + file + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** Records the schedule if it is better than the one recorded for the instance and configuration.
+     *
+     * @return True if the schedule was recorded.
+     */
+    public synchronized boolean offer(Instance instance, String configuration, Schedule schedule) throws IOException {
+        Optional<Schedule> current = best(instance, configuration);
+        if(current.isPresent() && current.get().makespan() <= schedule.makespan())
+            return false;
+        BinaryFormat.writeSolution(new ResourceOrder(schedule), schedule.makespan(), fileOf(instance, configuration));
+        return true;
+    }
+
+    /** A solver that starts from the solution recorded for the configuration, and uses the given solver when
+     * there is none. It is meant to be the base solver of a local search, so that each run continues the
+     * improvement of the previous ones.
+     */
+    public Solver warmStart(String configuration, Solver fallback) {
+        return (instance, deadline) -> {
+            Optional<Schedule> stored = best(instance, configuration);
+            return stored.isPresent() ? stored : fallback.solve(instance, deadline);
+        };
+    }
+}
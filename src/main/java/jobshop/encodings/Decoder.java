@@ -0,0 +1,162 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+import java.util.Arrays;
+
+/** Computes the start times of a ResourceOrder by a topological traversal of its disjunctive graph.
+ *
+ * The nodes of the graph are the tasks, identified by <code>job * numTasks + task</code>, and each task has at most
+ * two predecessors: the previous task of its job and the previous task on its machine. The tasks are processed in
+ * the order in which their predecessors are done (Kahn's algorithm), so each task is visited exactly once and its
+ * start time is the latest end time of its predecessors. If some tasks are never reached, the resource order
+ * contains a cycle and does not represent a valid solution.
+ *
+ * All work arrays are allocated once and reused for all subsequent decodings: a decoder should thus not be shared
+ * between threads. <code>Decoder.forCurrentThread()</code> provides a decoder that is private to the calling thread.
+ */
+public final class Decoder {
+
+    // a decoder for each thread, used by ResourceOrder.toSchedule()
+    private static final ThreadLocal<Decoder> scratch = ThreadLocal.withInitial(Decoder::new);
+
+    /** Returns the decoder of the current thread. Its content is overwritten by any call to toSchedule(). */
+    public static Decoder forCurrentThread() {
+        return scratch.get();
+    }
+
+    // instance of the last decoded resource order
+    private Instance instance;
+    // number of tasks of the last decoded resource order
+    private int size = 0;
+
+    // predecessor and successor of each task on its machine (-1 if there is none)
+    private int[] machinePred = new int[0];
+    private int[] machineSucc = new int[0];
+    // number of predecessors that are not yet scheduled
+    private int[] inDegree = new int[0];
+    // start time of each task
+    private int[] head = new int[0];
+    // tasks in a topological order, this array is also used as the queue of Kahn's algorithm
+    private int[] topoOrder = new int[0];
+    // position of each task in the topological order
+    private int[] topoIndex = new int[0];
+
+    private int makespan;
+
+    /** Creates a new decoder. Its work arrays will grow to the size of the largest instance decoded. */
+    public Decoder() {}
+
+    // makes sure that all work arrays can hold n tasks
+    private void ensureCapacity(int n) {
+        if(machinePred.length < n) {
+            machinePred = new int[n];
+            machineSucc = new int[n];
+            inDegree = new int[n];
+            head = new int[n];
+            topoOrder = new int[n];
+            topoIndex = new int[n];
+        }
+    }
+
+    /** Computes the start times of all tasks in the resource order.
+     *
+     * @return False if the resource order is incomplete or contains a cycle. In this case, the content of the
+     *         decoder is undefined.
+     */
+    public boolean decode(ResourceOrder order) {
+        this.instance = order.instance;
+        final int numTasks = instance.numTasks;
+        this.size = instance.numJobs * numTasks;
+        ensureCapacity(size);
+
+        // machine predecessors and successors, -2 marks a task that does not appear in the resource order
+        Arrays.fill(machinePred, 0, size, -2);
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            if(order.nextFreeSlot[m] < instance.numJobs) return false;
+            int offset = m * instance.numJobs;
+            int previous = -1;
+            for(int i = 0 ; i < instance.numJobs ; i++) {
+                int t = order.tasks[offset + i];
+                if(machinePred[t] != -2) return false; // task appearing twice
+                machinePred[t] = previous;
+                machineSucc[t] = -1;
+                if(previous >= 0) machineSucc[previous] = t;
+                previous = t;
+            }
+        }
+
+        // tasks without any predecessor are ready
+        int queued = 0;
+        for(int t = 0 ; t < size ; t++) {
+            inDegree[t] = (t % numTasks == 0 ? 0 : 1) + (machinePred[t] >= 0 ? 1 : 0);
+            if(inDegree[t] == 0) topoOrder[queued++] = t;
+        }
+
+        makespan = 0;
+        for(int i = 0 ; i < queued ; i++) {
+            int t = topoOrder[i];
+            topoIndex[t] = i;
+            int start = 0;
+            if(t % numTasks != 0) start = head[t-1] + instance.duration(t-1);
+            int mp = machinePred[t];
+            if(mp >= 0) start = Math.max(start, head[mp] + instance.duration(mp));
+            head[t] = start;
+            makespan = Math.max(makespan, start + instance.duration(t));
+
+            // release the successors on the job and on the machine
+            if(t % numTasks != numTasks - 1 && --inDegree[t+1] == 0) topoOrder[queued++] = t+1;
+            int ms = machineSucc[t];
+            if(ms >= 0 && --inDegree[ms] == 0) topoOrder[queued++] = ms;
+        }
+        // if some tasks were never released, there is a cyclic dependency
+        return queued == size;
+    }
+
+    /** Creates a schedule from the start times of the last decoded resource order.
+     * The schedule is marked as decoded, see <code>Schedule.isDecoded()</code>.
+     */
+    public Schedule toSchedule() {
+        Schedule schedule = new Schedule(instance);
+        for(int job = 0 ; job < instance.numJobs ; job++) {
+            System.arraycopy(head, job * instance.numTasks, schedule.times[job], 0, instance.numTasks);
+        }
+        schedule.decoded = true;
+        return schedule;
+    }
+
+    /** Number of tasks in the last decoded resource order. */
+    public int size() {
+        return size;
+    }
+
+    /** Makespan of the last decoded resource order. */
+    public int makespan() {
+        return makespan;
+    }
+
+    /** Start time of the task with the given identifier. */
+    public int head(int t) {
+        return head[t];
+    }
+
+    /** Predecessor of the task on its machine, -1 if it is the first one. */
+    public int machinePred(int t) {
+        return machinePred[t];
+    }
+
+    /** Successor of the task on its machine, -1 if it is the last one. */
+    public int machineSucc(int t) {
+        return machineSucc[t];
+    }
+
+    /** The i-th task of the topological order in which the tasks were scheduled. */
+    public int topologicalOrder(int i) {
+        return topoOrder[i];
+    }
+
+    /** Position of the task in the topological order in which the tasks were scheduled. */
+    public int topologicalIndex(int t) {
+        return topoIndex[t];
+    }
+}
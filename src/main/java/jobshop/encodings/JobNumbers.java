@@ -0,0 +1,106 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/** Encoding of a solution by an operation-based permutation: a sequence of job numbers in which each job appears
+ * numTasks times, its k-th occurrence standing for its k-th task.
+ *
+ * Any such sequence is a valid solution: tasks are appended to the queue of their machine in the order of the
+ * sequence, so that the sequence is a topological order of the resulting resource order.
+ */
+public final class JobNumbers extends Encoding {
+
+    /** The sequence of job numbers. */
+    public final int[] jobs;
+
+    /** Creates a solution from a sequence of job numbers, which is not copied.
+     *
+     * @throws RuntimeException If a job does not appear exactly numTasks times.
+     */
+    public JobNumbers(Instance instance, int[] jobs) {
+        super(instance);
+        if(jobs.length != instance.numJobs * instance.numTasks) {
+            throw new RuntimeException("Expected " + instance.numJobs * instance.numTasks + " job numbers, got " + jobs.length);
+        }
+        int[] occurrences = new int[instance.numJobs];
+        for(int job : jobs) {
+            if(job < 0 || job >= instance.numJobs || ++occurrences[job] > instance.numTasks) {
+                throw new RuntimeException("Invalid job number " + job + " in the sequence");
+            }
+        }
+        this.jobs = jobs;
+    }
+
+    /** Creates the sequence in which all tasks of the schedule are sorted by start time, ties being broken by job
+     * number. Decoding this sequence gives back the schedule if it is semi-active.
+     */
+    public static JobNumbers fromSchedule(Schedule schedule) {
+        Instance instance = schedule.instance;
+        long[] keys = new long[instance.numJobs * instance.numTasks];
+        int i = 0;
+        for(int job = 0 ; job < instance.numJobs ; job++) {
+            for(int task = 0 ; task < instance.numTasks ; task++) {
+                keys[i++] = (long) schedule.startTime(job, task) * instance.numJobs + job;
+            }
+        }
+        Arrays.sort(keys);
+        int[] jobs = new int[keys.length];
+        for(i = 0 ; i < keys.length ; i++) {
+            jobs[i] = (int) Math.floorMod(keys[i], (long) instance.numJobs);
+        }
+        return new JobNumbers(instance, jobs);
+    }
+
+    /** Converts the sequence into a resource order, which is always acyclic. */
+    public ResourceOrder toResourceOrder() {
+        ResourceOrder order = new ResourceOrder(instance);
+        int[] nextTask = new int[instance.numJobs];
+        for(int job : jobs) {
+            int task = nextTask[job]++;
+            order.addTaskToMachine(instance.machine(job, task), job, task);
+        }
+        return order;
+    }
+
+    /** Makespan of the semi-active schedule, computed directly from the sequence. */
+    public int makespan() {
+        int[] nextTask = new int[instance.numJobs];
+        int[] jobEnd = new int[instance.numJobs];
+        int[] machineEnd = new int[instance.numMachines];
+        int makespan = 0;
+        for(int job : jobs) {
+            int id = instance.taskId(job, nextTask[job]++);
+            int machine = instance.machine(id);
+            int end = Math.max(jobEnd[job], machineEnd[machine]) + instance.duration(id);
+            jobEnd[job] = end;
+            machineEnd[machine] = end;
+            makespan = Math.max(makespan, end);
+        }
+        return makespan;
+    }
+
+    @Override
+    public Optional<Schedule> toSchedule() {
+        return toResourceOrder().toSchedule();
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(jobs);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(jobs, ((JobNumbers) o).jobs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(jobs);
+    }
+}
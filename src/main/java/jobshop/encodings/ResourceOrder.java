@@ -3,17 +3,17 @@ package jobshop.encodings;
 import jobshop.Instance;
 
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.IntStream;
 
 /** Encoding of a solution by the ordering of tasks on each machine. */
 public final class ResourceOrder extends Encoding {
 
-    // for each machine m, taskByMachine[m] is an array of tasks to be
-    // executed on this machine in the same order
-    final Task[][] tasksByMachine;
+    // for each machine m, tasks[m * numJobs + i] is the identifier (job * numTasks + task) of the i-th task
+    // to be executed on this machine (-1 if the slot has not been initialized)
+    final int[] tasks;
+
+    // for each task identifier, position of the task in the queue of its machine (-1 if not in the queue yet)
+    final int[] positions;
 
     // for each machine, indicate how many tasks have been initialized
     final int[] nextFreeSlot;
@@ -23,8 +23,11 @@ public final class ResourceOrder extends Encoding {
     {
         super(instance);
 
-        // matrix of null elements (null is the default value of objects)
-        tasksByMachine = new Task[instance.numMachines][instance.numJobs];
+        // no task in any slot
+        tasks = new int[instance.numMachines * instance.numJobs];
+        Arrays.fill(tasks, -1);
+        positions = new int[instance.numJobs * instance.numTasks];
+        Arrays.fill(positions, -1);
 
         // no task scheduled on any machine (0 is the default value)
         nextFreeSlot = new int[instance.numMachines];
@@ -36,18 +39,24 @@ public final class ResourceOrder extends Encoding {
         super(schedule.instance);
         Instance pb = schedule.instance;
 
-        this.tasksByMachine = new Task[pb.numMachines][];
+        this.tasks = new int[pb.numMachines * pb.numJobs];
+        this.positions = new int[pb.numJobs * pb.numTasks];
         this.nextFreeSlot = new int[instance.numMachines];
 
+        // sort keys: start time first, then job number
+        long[] keys = new long[pb.numJobs];
         for(int m = 0; m<schedule.instance.numMachines ; m++) {
-            final int machine = m;
-
-            // for this machine, find all tasks that are executed on it and sort them by their start time
-            tasksByMachine[m] =
-                    IntStream.range(0, pb.numJobs) // all job numbers
-                            .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine))) // all tasks on this machine (one per job)
-                            .sorted(Comparator.comparing(t -> schedule.startTime(t.job, t.task))) // sorted by start time
-                            .toArray(Task[]::new); // as new array and store in tasksByMachine
+            // for this machine, find all tasks that are executed on it (one per job) and sort them by their start time
+            for(int j = 0 ; j < pb.numJobs ; j++) {
+                keys[j] = (long) schedule.startTime(j, pb.task_with_machine(j, m)) * pb.numJobs + j;
+            }
+            Arrays.sort(keys);
+            for(int i = 0 ; i < pb.numJobs ; i++) {
+                int job = (int) Math.floorMod(keys[i], (long) pb.numJobs);
+                int id = pb.taskId(job, pb.task_with_machine(job, m));
+                tasks[m * pb.numJobs + i] = id;
+                positions[id] = i;
+            }
 
             // indicate that all tasks have been initialized for machine m
             nextFreeSlot[m] = instance.numJobs;
@@ -57,18 +66,33 @@ public final class ResourceOrder extends Encoding {
     public ResourceOrder(ResourceOrder original) {
         super(original.instance);
         this.nextFreeSlot = original.nextFreeSlot.clone();
-        this.tasksByMachine = new Task[original.tasksByMachine.length][];
-        for(int i=0 ; i<this.tasksByMachine.length ; i++) {
-            this.tasksByMachine[i] = original.tasksByMachine[i].clone();
-        }
+        this.tasks = original.tasks.clone();
+        this.positions = original.positions.clone();
+    }
+
+    /** Overwrites the target resource order with the content of this one, without any allocation.
+     * Both resource orders must be of the same instance.
+     */
+    public void copyInto(ResourceOrder target) {
+        assert target.instance == this.instance;
+        System.arraycopy(tasks, 0, target.tasks, 0, tasks.length);
+        System.arraycopy(positions, 0, target.positions, 0, positions.length);
+        System.arraycopy(nextFreeSlot, 0, target.nextFreeSlot, 0, nextFreeSlot.length);
     }
 
     /** Adds the given task to the queue of the given machine. */
     public void addTaskToMachine(int machine, Task task) {
-        if(instance.machine(task) != machine) {
-            throw new RuntimeException("Task " + task + " cannot be scheduled on machine "+machine);
+        addTaskToMachine(machine, task.job, task.task);
+    }
+
+    /** Adds the task (job, task) to the queue of the given machine. */
+    public void addTaskToMachine(int machine, int job, int task) {
+        if(instance.machine(job, task) != machine) {
+            throw new RuntimeException("Task " + new Task(job, task) + " cannot be scheduled on machine "+machine);
         }
-        tasksByMachine[machine][nextFreeSlot[machine]] = task;
+        int id = job * instance.numTasks + task;
+        tasks[machine * instance.numJobs + nextFreeSlot[machine]] = id;
+        positions[id] = nextFreeSlot[machine];
         nextFreeSlot[machine] += 1;
     }
 
@@ -79,7 +103,25 @@ public final class ResourceOrder extends Encoding {
      * @return The i-th task scheduled on a machine.
      */
     public Task getTaskOfMachine(int machine, int taskIndex) {
-        return tasksByMachine[machine][taskIndex];
+        int id = tasks[machine * instance.numJobs + taskIndex];
+        return id < 0 ? null : new Task(id / instance.numTasks, id % instance.numTasks);
+    }
+
+    /** Returns the identifier (job * numTasks + task) of the i-th task scheduled on a particular machine.
+     * This is the allocation free counterpart of <code>getTaskOfMachine</code>.
+     */
+    public int getTaskIdOfMachine(int machine, int taskIndex) {
+        return tasks[machine * instance.numJobs + taskIndex];
+    }
+
+    /** Returns the job of the i-th task scheduled on a particular machine. */
+    public int getJobOfMachine(int machine, int taskIndex) {
+        return tasks[machine * instance.numJobs + taskIndex] / instance.numTasks;
+    }
+
+    /** Position of the given task in the queue of its machine, or -1 if it has not been added yet. */
+    public int getPosition(int job, int task) {
+        return positions[job * instance.numTasks + task];
     }
 
     /** Exchange the order of two tasks that are scheduled on a given machine.
@@ -89,62 +131,41 @@ public final class ResourceOrder extends Encoding {
      * @param indexTask2 Position of the second task in the machine's queue
      */
     public void swapTasks(int machine, int indexTask1, int indexTask2) {
-        Task tmp = tasksByMachine[machine][indexTask1];
-        tasksByMachine[machine][indexTask1] = tasksByMachine[machine][indexTask2];
-        tasksByMachine[machine][indexTask2] = tmp;
+        int offset = machine * instance.numJobs;
+        int tmp = tasks[offset + indexTask1];
+        tasks[offset + indexTask1] = tasks[offset + indexTask2];
+        tasks[offset + indexTask2] = tmp;
+        positions[tasks[offset + indexTask1]] = indexTask1;
+        positions[tasks[offset + indexTask2]] = indexTask2;
+    }
+
+    /** Moves a task to another position of the queue of its machine, shifting the tasks in between.
+     *
+     * @param machine Machine on which the task appears
+     * @param from Current position of the task in the machine's queue
+     * @param to Position of the task in the machine's queue after the move
+     */
+    public void moveTask(int machine, int from, int to) {
+        int offset = machine * instance.numJobs;
+        int moved = tasks[offset + from];
+        int step = from < to ? 1 : -1;
+        for(int i = from ; i != to ; i += step) {
+            tasks[offset + i] = tasks[offset + i + step];
+            positions[tasks[offset + i]] = i;
+        }
+        tasks[offset + to] = moved;
+        positions[moved] = to;
     }
 
     @Override
     public Optional<Schedule> toSchedule() {
-        // indicates, for each task that have been scheduled, its start time
-        Schedule schedule = new Schedule(instance);
-
-        // for each job, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByJob = new int[instance.numJobs];
-
-        // for each machine, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByMachine = new int[instance.numMachines];
-
-        // for each machine, earliest time at which the machine can be used
-        int[] releaseTimeOfMachine = new int[instance.numMachines];
-
-
-        // loop while there remains a job that has unscheduled tasks
-        while(IntStream.range(0, instance.numJobs).anyMatch(m -> nextToScheduleByJob[m] < instance.numTasks)) {
-
-            // selects a task that has no unscheduled predecessor on its job and machine :
-            //  - it is the next to be schedule on a machine
-            //  - it is the next to be scheduled on its job
-            // If there is no such task, we have cyclic dependency and the solution is invalid.
-            Optional<Task> schedulable =
-                    IntStream.range(0, instance.numMachines) // all machines ...
-                    .filter(m -> nextToScheduleByMachine[m] < instance.numJobs) // ... with unscheduled jobs
-                    .mapToObj(m -> this.tasksByMachine[m][nextToScheduleByMachine[m]]) // tasks that are next to schedule on a machine ...
-                    .filter(task -> task.task == nextToScheduleByJob[task.job])  // ... and on their job
-                    .findFirst(); // select the first one if any
-
-            if(schedulable.isPresent()) {
-                // we have a schedulable task, lets call it t
-                Task t = schedulable.get();
-                int machine = instance.machine(t.job, t.task);
-
-                // compute the earliest start time (est) of the task
-                int est = t.task == 0 ? 0 : schedule.endTime(t.job, t.task-1);
-                est = Math.max(est, releaseTimeOfMachine[instance.machine(t)]);
-                schedule.setStartTime(t.job, t.task, est);
-
-                // mark the task as scheduled
-                nextToScheduleByJob[t.job]++;
-                nextToScheduleByMachine[machine]++;
-                // increase the release time of the machine
-                releaseTimeOfMachine[machine] = est + instance.duration(t.job, t.task);
-            } else {
-                // no tasks are schedulable, there is no solution for this resource ordering
-                return Optional.empty();
-            }
+        // topological traversal of the disjunctive graph, with the work arrays of the current thread
+        Decoder decoder = Decoder.forCurrentThread();
+        if(!decoder.decode(this)) {
+            // cyclic dependency, there is no solution for this resource ordering
+            return Optional.empty();
         }
-        // we exited the loop : all tasks have been scheduled successfully
-        return Optional.of(schedule);
+        return Optional.of(decoder.toSchedule());
     }
 
     /** Creates an exact copy of this resource order.
@@ -169,7 +190,7 @@ public final class ResourceOrder extends Encoding {
             s.append("Machine ").append(m).append(" : ");
             for(int j=0; j<instance.numJobs; j++)
             {
-                s.append(tasksByMachine[m][j]).append(" ; ");
+                s.append(getTaskOfMachine(m, j)).append(" ; ");
             }
             s.append("\n");
         }
@@ -182,26 +203,22 @@ public final class ResourceOrder extends Encoding {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ResourceOrder that = (ResourceOrder) o;
-        return Arrays.deepEquals(tasksByMachine, that.tasksByMachine) && Arrays.equals(nextFreeSlot, that.nextFreeSlot);
+        return Arrays.equals(tasks, that.tasks) && Arrays.equals(nextFreeSlot, that.nextFreeSlot);
     }
 
     @Override
     public int hashCode() {
-        int result = Arrays.hashCode(tasksByMachine);
+        int result = Arrays.hashCode(tasks);
         result = 31 * result + Arrays.hashCode(nextFreeSlot);
         return result;
     }
 
+    /** Position of the task in the queue of the given machine, -1 if it is not in this queue. */
     public int getIndexOrder(int machine, Task task){
-        Task[] t = tasksByMachine[machine];
-        int position = 0;
-        while (position <= t.length){
-            if (t[position].equals(task)){
-                return position;
-            }else {
-                position++;
-            }
+        int position = positions[task.job * instance.numTasks + task.task];
+        if(position < 0 || tasks[machine * instance.numJobs + position] != task.job * instance.numTasks + task.task) {
+            return -1;
         }
-        return -1;
+        return position;
     }
-}
\ No newline at end of file
+}
@@ -16,6 +16,10 @@ public class Schedule extends Encoding {
     // times[j][i] is the start time of task (j,i) : i^th task of the j^th job
     final int[][] times;
 
+    // true if the start times were computed by decoding a complete and acyclic resource order and not modified
+    // since, in which case the schedule is valid by construction
+    boolean decoded = false;
+
     /** Creates a new schedule for the given instance where all start times are uninitialized. */
     public Schedule(Instance instance) {
         super(instance);
@@ -49,36 +53,85 @@ public class Schedule extends Encoding {
     /** Sets the start time of the given task. */
     public void setStartTime(int job, int task, int startTime) {
         times[job][task] = startTime;
+        decoded = false;
     }
 
-    /** Returns true if this schedule is valid (no constraint is violated) */
+    /** Returns true if this schedule was obtained by decoding a resource order and has not been modified since.
+     * Such a schedule is valid by construction, so that solvers do not need to check it again. Note that this
+     * relies on the correctness of the decoder: <code>isValid()</code> provides an independent check.
+     */
+    public boolean isDecoded() {
+        return decoded;
+    }
+
+    /** Returns true if this schedule is valid (no constraint is violated)
+     *
+     * This check does not trust the origin of the schedule. On each machine, the tasks are sorted by start time and
+     * only consecutive tasks are compared, in O(tasks * log(jobs)).
+     */
     public boolean isValid() {
-        for(int j = 0; j<instance.numJobs ; j++) {
-            for(int t = 1; t< instance.numTasks ; t++) {
-                if(startTime(j, t-1) + instance.duration(j, t-1) > startTime(j, t))
-                    return false;
+        if(!isValidOnJobs())
+            return false;
+
+        // tasks of a machine, sorted by start time then end time: start and end are both packed in a key
+        long[] keys = new long[instance.numJobs];
+        for (int machine = 0; machine < instance.numMachines ; machine++) {
+            for(int j = 0; j< instance.numJobs ; j++) {
+                int t = instance.task_with_machine(j, machine);
+                keys[j] = ((long) startTime(j, t) << 32) | endTime(j, t);
             }
-            for(int t = 0; t< instance.numTasks ; t++) {
-                if(startTime(j, t) < 0)
+            Arrays.sort(keys);
+            for(int i = 0 ; i < instance.numJobs - 1 ; i++) {
+                // end of the i-th task must not be after the start of the next one
+                if((int) keys[i] > (int) (keys[i+1] >>> 32))
                     return false;
             }
         }
 
-        for (int machine = 0; machine < instance.numMachines ; machine++) {
-            for(int j1 = 0; j1< instance.numJobs ; j1++) {
-                int t1 = instance.task_with_machine(j1, machine);
-                for(int j2 = j1+1; j2< instance.numJobs ; j2++) {
-                    int t2 = instance.task_with_machine(j2, machine);
+        return true;
+    }
 
-                    boolean t1_first = endTime(j1, t1) <= startTime(j2, t2);
-                    boolean t2_first = endTime(j2, t2) <= startTime(j1, t1);
+    /** Returns true if this schedule is valid, given the order of the tasks on each machine.
+     *
+     * Only consecutive tasks of each machine are compared, in O(tasks). The resource order must be complete, and
+     * is typically the one from which the schedule was built.
+     */
+    public boolean isValid(ResourceOrder order) {
+        assert order.instance == instance;
+        if(!isValidOnJobs())
+            return false;
 
-                    if(!t1_first && !t2_first)
-                        return false;
-                }
+        // each task must appear exactly once in the resource order
+        boolean[] seen = new boolean[instance.numJobs * instance.numTasks];
+        for (int machine = 0; machine < instance.numMachines ; machine++) {
+            int previousEnd = 0;
+            for(int i = 0; i< instance.numJobs ; i++) {
+                int id = order.getTaskIdOfMachine(machine, i);
+                if(id < 0 || instance.machine(id) != machine || seen[id])
+                    return false;
+                seen[id] = true;
+                int job = id / instance.numTasks;
+                int task = id % instance.numTasks;
+                if(startTime(job, task) < previousEnd)
+                    return false;
+                previousEnd = endTime(job, task);
             }
         }
+        return true;
+    }
 
+    // true if all start times are non-negative and the tasks of each job are executed in order
+    private boolean isValidOnJobs() {
+        for(int j = 0; j<instance.numJobs ; j++) {
+            for(int t = 1; t< instance.numTasks ; t++) {
+                if(startTime(j, t-1) + instance.duration(j, t-1) > startTime(j, t))
+                    return false;
+            }
+            for(int t = 0; t< instance.numTasks ; t++) {
+                if(startTime(j, t) < 0)
+                    return false;
+            }
+        }
         return true;
     }
 
@@ -0,0 +1,384 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.encodings.Decoder;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.CriticalBlocks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Exact solver: depth-first branch and bound over the disjunctive graph, with the branching scheme of Brucker,
+ * Jurisch and Sievers (1994).
+ *
+ * A node of the search tree is a set of fixed disjunctive arcs (precedences between two tasks of a machine).
+ * At each node:
+ *  - the heads and tails of all tasks are computed with the fixed arcs, and the node is pruned if the preemptive
+ *    one-machine bound of a machine (see <code>LowerBounds</code>) is not better than the incumbent,
+ *  - a solution that respects the fixed arcs is built by list scheduling, and may improve the incumbent,
+ *  - children are created from the blocks of the critical path of this solution: a better solution must move a task
+ *    of some block before the first or after the last task of this block. The children are disjoint.
+ *
+ * The initial incumbent is the solution of another solver, typically a TabouSolver. Subtrees are explored in
+ * parallel by a fork-join pool. If the deadline is reached, the best solution found so far is returned, without
+ * proof of optimality.
+ * The fixed arcs are stored as bitsets, so that only instances of at most 64 jobs are explored: on larger ones,
+ * the solution of the initial solver is returned.
+ */
+public class BranchAndBoundSolver implements Solver {
+
+    /** Maximal number of jobs of an instance explored by the branch and bound. */
+    static final int MAX_JOBS = 64;
+
+    /** A child is only explored by another thread while the current one has fewer tasks waiting in its queue. */
+    static final int SPLIT_THRESHOLD = 2;
+
+    final Solver initialSolver;
+    final int parallelism;
+
+    /** True if the last call to solve proved the optimality of its result. */
+    private boolean lastProvenOptimal = false;
+
+    /** Number of nodes explored during the last call to solve. */
+    private long lastNodes = 0;
+
+    /** Creates a new branch and bound solver.
+     *
+     * @param initialSolver Solver that gives the initial incumbent (upper bound).
+     * @param parallelism Number of threads of the fork-join pool that explores the tree.
+     */
+    public BranchAndBoundSolver(Solver initialSolver, int parallelism) {
+        this.initialSolver = initialSolver;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, long deadline) {
+        lastProvenOptimal = false;
+        lastNodes = 0;
+        Optional<Schedule> initial = initialSolver.solve(instance, deadline);
+        if(initial.isEmpty() || instance.numJobs > MAX_JOBS) return initial;
+
+        Search search = new Search(instance, deadline, initial.get());
+        if(search.upperBound.get() > LowerBounds.of(instance)) {
+            int arcs = instance.numMachines * instance.numJobs;
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new Node(search, new long[arcs], new long[arcs]));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        lastProvenOptimal = !search.timeout;
+        lastNodes = search.nodes.get();
+        return search.incumbent == null ? initial : search.incumbent.toSchedule();
+    }
+
+    /** True if the last call to solve proved the optimality of its result. */
+    public boolean lastProvenOptimal() {
+        return lastProvenOptimal;
+    }
+
+    /** Number of nodes explored during the last call to solve. */
+    public long lastNodes() {
+        return lastNodes;
+    }
+
+    /** State shared by all nodes of a search. */
+    private static final class Search {
+        final Instance instance;
+        final int numJobs;
+        final int size;
+        final long deadline;
+
+        /** Makespan of the incumbent. */
+        final AtomicInteger upperBound;
+        /** Best solution found by the branch and bound, null if none is better than the initial one. */
+        volatile ResourceOrder incumbent = null;
+
+        final AtomicLong nodes = new AtomicLong();
+        volatile boolean timeout = false;
+
+        /** Work arrays of the lower bound, for each thread of the pool. */
+        final ThreadLocal<Bound> bounds;
+
+        Search(Instance instance, long deadline, Schedule initial) {
+            this.instance = instance;
+            this.numJobs = instance.numJobs;
+            this.size = instance.numJobs * instance.numTasks;
+            this.deadline = deadline;
+            this.upperBound = new AtomicInteger(initial.makespan());
+            this.bounds = ThreadLocal.withInitial(() -> new Bound(numJobs));
+        }
+
+        /** Identifier of the task of the job that is executed on the machine. */
+        int taskOn(int job, int machine) {
+            return instance.taskId(job, instance.task_with_machine(job, machine));
+        }
+
+        synchronized void offer(ResourceOrder order, int makespan) {
+            if(makespan < upperBound.get()) {
+                incumbent = order;
+                upperBound.set(makespan);
+            }
+        }
+    }
+
+    /** One-machine problem of a machine at a node, and the work arrays of its preemptive bound. */
+    private static final class Bound {
+        final int[] head;
+        final int[] duration;
+        final int[] tail;
+        final LowerBounds.Preemptive preemptive;
+
+        Bound(int numJobs) {
+            head = new int[numJobs];
+            duration = new int[numJobs];
+            tail = new int[numJobs];
+            preemptive = new LowerBounds.Preemptive(numJobs);
+        }
+    }
+
+    /** A node of the search tree, identified by its fixed arcs.
+     * For each machine m and job j, succ[m * numJobs + j] is the set of jobs whose task on m must be executed after
+     * the task of j, and pred[m * numJobs + j] the set of jobs whose task on m must be executed before.
+     */
+    private static final class Node extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final Search search;
+        final long[] succ;
+        final long[] pred;
+
+        Node(Search search, long[] succ, long[] pred) {
+            this.search = search;
+            this.succ = succ;
+            this.pred = pred;
+        }
+
+        @Override
+        protected void compute() {
+            explore();
+        }
+
+        private void explore() {
+            search.nodes.incrementAndGet();
+            if(search.timeout) return;
+            if(System.currentTimeMillis() >= search.deadline) {
+                search.timeout = true;
+                return;
+            }
+            int[] head = new int[search.size];
+            int[] tail = new int[search.size];
+            // a cycle of fixed arcs: no solution in this subtree
+            if(!headsAndTails(head, tail)) return;
+            int bound = lowerBound(head, tail);
+            if(bound >= search.upperBound.get()) return;
+
+            ResourceOrder order = listSchedule(tail);
+            Decoder decoder = Decoder.forCurrentThread();
+            boolean acyclic = decoder.decode(order);
+            assert acyclic;
+            int makespan = decoder.makespan();
+            search.offer(order, makespan);
+            // the list schedule is optimal in this subtree, or nothing better than the incumbent can be found
+            if(bound >= search.upperBound.get() || makespan == bound) return;
+
+            CriticalBlocks blocks = new CriticalBlocks();
+            blocks.extract(decoder, order);
+            List<Node> forked = new ArrayList<>();
+            for(Node child : children(order, blocks)) {
+                if(search.timeout) break;
+                // subtrees are given to other threads while they have work to steal
+                if(getSurplusQueuedTaskCount() < SPLIT_THRESHOLD) {
+                    child.fork();
+                    forked.add(child);
+                } else {
+                    child.explore();
+                }
+            }
+            for(Node child : forked) {
+                child.join();
+            }
+        }
+
+        /** Computes the longest paths from the start (heads) and to the end (tails) of each task, with the job arcs
+         * and the fixed arcs only.
+         *
+         * @return False if the fixed arcs create a cycle.
+         */
+        private boolean headsAndTails(int[] head, int[] tail) {
+            Instance instance = search.instance;
+            int numJobs = search.numJobs;
+            int[] inDegree = new int[search.size];
+            int[] topological = new int[search.size];
+            int end = 0;
+            for(int t = 0 ; t < search.size ; t++) {
+                int job = t / instance.numTasks;
+                int task = t % instance.numTasks;
+                inDegree[t] = (task > 0 ? 1 : 0) + Long.bitCount(pred[instance.machine(t) * numJobs + job]);
+                if(inDegree[t] == 0) topological[end++] = t;
+            }
+            // Kahn's algorithm, the heads are relaxed along the topological order
+            for(int i = 0 ; i < end ; i++) {
+                int t = topological[i];
+                int job = t / instance.numTasks;
+                int machine = instance.machine(t);
+                int taskEnd = head[t] + instance.duration(t);
+                if(t % instance.numTasks < instance.numTasks - 1) {
+                    head[t + 1] = Math.max(head[t + 1], taskEnd);
+                    if(--inDegree[t + 1] == 0) topological[end++] = t + 1;
+                }
+                for(long next = succ[machine * numJobs + job] ; next != 0 ; next &= next - 1) {
+                    int s = search.taskOn(Long.numberOfTrailingZeros(next), machine);
+                    head[s] = Math.max(head[s], taskEnd);
+                    if(--inDegree[s] == 0) topological[end++] = s;
+                }
+            }
+            if(end < search.size) return false;
+
+            for(int i = search.size - 1 ; i >= 0 ; i--) {
+                int t = topological[i];
+                int job = t / instance.numTasks;
+                int machine = instance.machine(t);
+                int q = 0;
+                if(t % instance.numTasks < instance.numTasks - 1) {
+                    q = instance.duration(t + 1) + tail[t + 1];
+                }
+                for(long next = succ[machine * numJobs + job] ; next != 0 ; next &= next - 1) {
+                    int s = search.taskOn(Long.numberOfTrailingZeros(next), machine);
+                    q = Math.max(q, instance.duration(s) + tail[s]);
+                }
+                tail[t] = q;
+            }
+            return true;
+        }
+
+        /** Largest preemptive one-machine bound over all machines, with the heads and tails of the node. */
+        private int lowerBound(int[] head, int[] tail) {
+            Instance instance = search.instance;
+            Bound problem = search.bounds.get();
+            int bound = 0;
+            for(int machine = 0 ; machine < instance.numMachines ; machine++) {
+                for(int job = 0 ; job < search.numJobs ; job++) {
+                    int t = search.taskOn(job, machine);
+                    problem.head[job] = head[t];
+                    problem.duration[job] = instance.duration(t);
+                    problem.tail[job] = tail[t];
+                }
+                bound = Math.max(bound, problem.preemptive.bound(problem.head, problem.duration, problem.tail));
+            }
+            return bound;
+        }
+
+        /** Builds a solution that respects the fixed arcs: among the tasks whose predecessors are all scheduled, the
+         * one that can start first is scheduled, ties being broken in favor of the largest tail.
+         */
+        private ResourceOrder listSchedule(int[] tail) {
+            Instance instance = search.instance;
+            int numJobs = search.numJobs;
+            ResourceOrder order = new ResourceOrder(instance);
+            int[] nextTask = new int[numJobs];
+            int[] jobEnd = new int[numJobs];
+            int[] machineEnd = new int[instance.numMachines];
+            long[] scheduled = new long[instance.numMachines];
+            for(int step = 0 ; step < search.size ; step++) {
+                int bestJob = -1;
+                int bestStart = Integer.MAX_VALUE;
+                int bestTail = -1;
+                for(int job = 0 ; job < numJobs ; job++) {
+                    if(nextTask[job] == instance.numTasks) continue;
+                    int t = instance.taskId(job, nextTask[job]);
+                    int machine = instance.machine(t);
+                    // all fixed predecessors on the machine must have been scheduled
+                    if((pred[machine * numJobs + job] & ~scheduled[machine]) != 0) continue;
+                    int start = Math.max(jobEnd[job], machineEnd[machine]);
+                    if(start < bestStart || (start == bestStart && tail[t] > bestTail)) {
+                        bestJob = job;
+                        bestStart = start;
+                        bestTail = tail[t];
+                    }
+                }
+                // the fixed arcs are acyclic, so a task whose predecessors are all scheduled always exists
+                assert bestJob >= 0;
+                int t = instance.taskId(bestJob, nextTask[bestJob]);
+                int machine = instance.machine(t);
+                order.addTaskToMachine(machine, bestJob, nextTask[bestJob]);
+                jobEnd[bestJob] = bestStart + instance.duration(t);
+                machineEnd[machine] = jobEnd[bestJob];
+                scheduled[machine] |= 1L << bestJob;
+                nextTask[bestJob]++;
+            }
+            return order;
+        }
+
+        /** Children of the node, from the blocks of the critical path of the solution.
+         * For the b-th block, the children either put one of its tasks but the first one before all others, or
+         * keep its first task first and put one of its interior tasks after all others. All of them keep the first
+         * and last tasks of the previous blocks in place.
+         */
+        private List<Node> children(ResourceOrder order, CriticalBlocks blocks) {
+            int numJobs = search.numJobs;
+            List<Node> children = new ArrayList<>();
+            long[] keptSucc = succ;
+            long[] keptPred = pred;
+            for(int b = 0 ; b < blocks.numBlocks() ; b++) {
+                int machine = blocks.machine(b);
+                int first = blocks.firstPosition(b);
+                int last = blocks.lastPosition(b);
+                long block = 0;
+                for(int i = first ; i <= last ; i++) {
+                    block |= 1L << order.getJobOfMachine(machine, i);
+                }
+
+                for(int i = first + 1 ; i <= last ; i++) {
+                    int job = order.getJobOfMachine(machine, i);
+                    Node child = new Node(search, keptSucc.clone(), keptPred.clone());
+                    child.fixBefore(machine, job, block & ~(1L << job));
+                    children.add(child);
+                }
+
+                int firstJob = order.getJobOfMachine(machine, first);
+                Node firstKept = new Node(search, keptSucc.clone(), keptPred.clone());
+                firstKept.fixBefore(machine, firstJob, block & ~(1L << firstJob));
+                for(int i = first + 1 ; i < last ; i++) {
+                    int job = order.getJobOfMachine(machine, i);
+                    Node child = new Node(search, firstKept.succ.clone(), firstKept.pred.clone());
+                    child.fixAfter(machine, job, block & ~(1L << job));
+                    children.add(child);
+                }
+
+                int lastJob = order.getJobOfMachine(machine, last);
+                firstKept.fixAfter(machine, lastJob, block & ~(1L << lastJob));
+                keptSucc = firstKept.succ;
+                keptPred = firstKept.pred;
+            }
+            return children;
+        }
+
+        // the task of the job on the machine is executed before the tasks of all the given jobs
+        private void fixBefore(int machine, int job, long others) {
+            int numJobs = search.numJobs;
+            succ[machine * numJobs + job] |= others;
+            for(long o = others ; o != 0 ; o &= o - 1) {
+                pred[machine * numJobs + Long.numberOfTrailingZeros(o)] |= 1L << job;
+            }
+        }
+
+        // the task of the job on the machine is executed after the tasks of all the given jobs
+        private void fixAfter(int machine, int job, long others) {
+            int numJobs = search.numJobs;
+            pred[machine * numJobs + job] |= others;
+            for(long o = others ; o != 0 ; o &= o - 1) {
+                succ[machine * numJobs + Long.numberOfTrailingZeros(o)] |= 1L << job;
+            }
+        }
+    }
+}
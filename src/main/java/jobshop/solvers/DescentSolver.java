@@ -1,10 +1,13 @@
 package jobshop.solvers;
 
 import jobshop.Instance;
+import jobshop.encodings.Decoder;
 import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.InsertionNeighborhood;
 import jobshop.solvers.neighborhood.Neighborhood;
 import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.SwapEvaluator;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,44 +18,87 @@ public class DescentSolver implements Solver {
     final Neighborhood neighborhood;
     final Solver baseSolver;
 
+    /** Maximal number of descent steps. */
+    final long maxIter;
+
     /** Creates a new descent solver with a given neighborhood and a solver for the initial solution.
      *
      * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
      * @param baseSolver A solver to provide the initial solution.
      */
     public DescentSolver(Neighborhood neighborhood, Solver baseSolver) {
+        this(neighborhood, baseSolver, Long.MAX_VALUE);
+    }
+
+    /** Creates a new descent solver that stops after at most maxIter steps, even if it is not in a local optimum. */
+    public DescentSolver(Neighborhood neighborhood, Solver baseSolver, long maxIter) {
         this.neighborhood = neighborhood;
         this.baseSolver = baseSolver;
+        this.maxIter = maxIter;
     }
 
     @Override
     public Optional<Schedule> solve(Instance instance, long deadline) {
 
         Optional<Schedule> schedule = baseSolver.solve(instance,deadline);
-        Optional<Schedule> solution = schedule;
+        if(schedule.isEmpty()) return schedule;
+        // current solution, modified in place by the selected moves, and its heads, tails and critical blocks
+        ResourceOrder current = new ResourceOrder(schedule.get());
+        SwapEvaluator evaluator = new SwapEvaluator(instance);
+        evaluator.reset(current);
+        // stops at the deadline, after maxIter steps or when the best known result is matched
+        SearchBudget budget = SearchBudget.until(deadline).withMaxIterations(maxIter).withTargetOf(instance);
         do {
-            ResourceOrder initial = new ResourceOrder(schedule.get());
-            List<ResourceOrder> neighborsList = neighborhood.generateNeighbors(initial);
-            int min = schedule.get().makespan();
-
-            for (ResourceOrder temp: neighborsList) {
-                Optional<Schedule> tmpS = temp.toSchedule();
-                if(tmpS.isPresent() && tmpS.get().isValid()){ // vérifie la validité du ressource order
-                    if(tmpS.get().makespan()<min){ //vérifie si le makespan est meilleur
-                        solution = tmpS;
-                        min = tmpS.get().makespan();
-                    }
-                }
-            }
-            if (solution.get().makespan()<schedule.get().makespan()){
-                schedule = solution;
-            }else if(solution.get().makespan() == schedule.get().makespan()){
-                break;
-            }
+            int min = evaluator.makespan();
+            Neighborhood.Move best = neighborhood instanceof Nowicki
+                    ? bestSwap(current, evaluator, min)
+                    : bestMove(current, evaluator, min);
+            // local optimum
+            if(best == null) break;
+            best.apply(current);
+            evaluator.reset(current);
+        }while(budget.next(evaluator.makespan()));
 
-        }while(schedule == solution);
+        // the schedule is only built for the local optimum
+        return Optional.of(evaluator.schedule());
+    }
 
-        return solution;
+    // best improving swap of the critical blocks, null if there is none
+    private Nowicki.Swap bestSwap(ResourceOrder current, SwapEvaluator evaluator, int min) {
+        List<Nowicki.Swap> neighborsList = ((Nowicki) neighborhood).allSwaps(evaluator.criticalBlocks());
+        Nowicki.Swap bestSwap = null;
+        for (Nowicki.Swap temp: neighborsList) {
+            // a neighbor whose lower bound is not better cannot improve the makespan
+            if(evaluator.lowerBound(temp) >= min) continue;
+            int makespan = evaluator.makespan(temp);
+            if(makespan<min){ //vérifie si le makespan est meilleur
+                bestSwap = temp;
+                min = makespan;
+            }
+        }
+        return bestSwap;
     }
 
+    // best improving move of the neighborhood, null if there is none
+    private Neighborhood.Move bestMove(ResourceOrder current, SwapEvaluator evaluator, int min) {
+        InsertionNeighborhood insertions = neighborhood instanceof InsertionNeighborhood
+                ? (InsertionNeighborhood) neighborhood : null;
+        List<? extends Neighborhood.Move> moves = insertions != null
+                ? insertions.allInsertions(current, evaluator)
+                : neighborhood.moves(current);
+        Decoder decoder = Decoder.forCurrentThread();
+        Neighborhood.Move best = null;
+        for(Neighborhood.Move move : moves) {
+            // only the insertions that look improving are decoded to get their exact makespan
+            if(insertions != null && evaluator.estimate((InsertionNeighborhood.Insertion) move) >= min) continue;
+            // each neighbor is evaluated in place
+            move.apply(current);
+            if(decoder.decode(current) && decoder.makespan() < min) {
+                best = move;
+                min = decoder.makespan();
+            }
+            move.undo(current);
+        }
+        return best;
+    }
 }
@@ -3,13 +3,20 @@ package jobshop.solvers;
 import jobshop.Instance;
 import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Schedule;
-import jobshop.encodings.Task;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
-/** An empty shell to implement a greedy solver. */
+/** Greedy solver: repeatedly schedules the schedulable task with the best priority.
+ *
+ * At any time, each job has at most one schedulable task (its first unscheduled one). Those tasks are kept in an
+ * indexed binary heap, ordered by:
+ *  - for the EST_* priorities, the earliest start time of the task (smallest first),
+ *  - the priority rule itself (SPT, LPT, SRPT or LRPT),
+ *  - the task number (for SPT and LPT) and finally the job number.
+ * The remaining processing time of each task is precomputed by the instance, and earliest start times are updated
+ * in place in the heap when a machine becomes busy, so a complete construction takes O(N log(numJobs)) with no
+ * allocation per step.
+ */
 public class GreedySolver implements Solver {
 
     /** All possible priorities for the greedy solver. */
@@ -20,200 +27,236 @@ public class GreedySolver implements Solver {
     /** Priority that the solver should use. */
     final Priority priority;
 
+    /** Probability, at each step, to select a random schedulable task instead of the one with the best priority. */
+    final double randomness;
+
+    /** Source of randomness, only used if randomness is positive. */
+    final Random random;
+
     /** Creates a new greedy solver that will use the given priority. */
     public GreedySolver(Priority p) {
+        this(p, 0, 0);
+    }
+
+    /** Creates a new randomized greedy solver.
+     *
+     * @param p Priority used to select the next task.
+     * @param randomness Probability to select a random task at each step (0 for a deterministic solver).
+     * @param seed Seed of the random generator, so that runs can be reproduced.
+     */
+    public GreedySolver(Priority p, double randomness, long seed) {
         this.priority = p;
+        this.randomness = randomness;
+        this.random = new Random(seed);
+    }
+
+    /** True if the priority first considers the earliest start time of the tasks. */
+    private boolean isEST() {
+        return priority == Priority.EST_SPT || priority == Priority.EST_LPT
+                || priority == Priority.EST_SRPT || priority == Priority.EST_LRPT;
     }
 
     @Override
     public Optional<Schedule> solve(Instance instance, long deadline) {
         ResourceOrder solution = new ResourceOrder(instance);
-        TreeSet<Task> taskList = null;
-        EST_SPT est_spt = new EST_SPT(instance);
-        EST_LRPT est_lrpt = new EST_LRPT(instance);
-        if(this.priority == Priority.SPT){
-            taskList = new TreeSet<Task>(new SPT(instance));
-        }else if(this.priority == Priority.LRPT){
-            taskList = new TreeSet<Task>(new LRPT(instance));
-        }else if(this.priority == Priority.EST_SPT){
-            taskList = new TreeSet<Task>(est_spt);
-        }else if(this.priority == Priority.EST_LRPT){
-            taskList = new TreeSet<Task>(est_lrpt);
-        }
-
-        //initialisation de taskList avec les premières tâches de chaque job
-        for (int i=0; i< instance.numJobs; i++){
-            taskList.add(new Task(i, 0));
-            // System.out.println(taskList.size());
-        }
+        final int numTasks = instance.numTasks;
+        final boolean est = isEST();
 
-        // A mofidier selon le niveau de Random
-        int rand = 1;
+        // date at which each machine and each job is available
+        int[] machineFree = new int[instance.numMachines];
+        int[] jobFree = new int[instance.numJobs];
+        // next task of each job
+        int[] nextTask = new int[instance.numJobs];
 
-        while (!taskList.isEmpty()){
+        ReadyTasks ready = new ReadyTasks(instance.numJobs, instance.numMachines);
+        for (int j = 0; j < instance.numJobs; j++) {
+            ready.push(j, instance.machine(j, 0), 0, rank(instance, j, 0), tie(0));
+        }
 
-            Task min;
+        while (!ready.isEmpty()) {
 
-            if(Math.random() > rand){
-                Task[] array = new Task [taskList.size()];
-                array = taskList.toArray(array);
-                min = array[(int) (Math.random() * (taskList.size() - 1))];
-                taskList.remove(min);
-            }else{
-                min = taskList.pollFirst();
+            int job;
+            if (randomness > 0 && random.nextDouble() < randomness) {
+                job = ready.removeAt(random.nextInt(ready.size()));
+            } else {
+                job = ready.pop();
             }
 
+            int task = nextTask[job];
+            int machine = instance.machine(job, task);
+            solution.addTaskToMachine(machine, job, task);
 
-
-            if(this.priority == Priority.EST_SPT){
-                // System.out.println("Machine Tab : " + Arrays.toString(est_spt.MachineTab));
-                // System.out.println("JobTab + " + Arrays.toString(est_spt.JobTab));
-                int max = Math.max(est_spt.MachineTab[instance.machine(min)], est_spt.JobTab[min.job]);
-                est_spt.MachineTab[instance.machine(min)] = max + instance.duration(min);
-                est_spt.JobTab[min.job] = max + instance.duration(min);
-            }else if(this.priority == Priority.EST_LRPT){
-                // System.out.println("Machine Tab : " + Arrays.toString(est_lrpt.MachineTab));
-                // System.out.println("JobTab + " + Arrays.toString(est_lrpt.JobTab));
-                int max = Math.max(est_lrpt.MachineTab[instance.machine(min)], est_lrpt.JobTab[min.job]);
-                est_lrpt.MachineTab[instance.machine(min)] = max + instance.duration(min);
-                est_lrpt.JobTab[min.job] = max + instance.duration(min);
+            int end = Math.max(machineFree[machine], jobFree[job]) + instance.duration(job, task);
+            machineFree[machine] = end;
+            jobFree[job] = end;
+            if (est) {
+                // the tasks waiting for this machine cannot start before the end of the scheduled one
+                ready.delayMachine(machine, end);
             }
-            // System.out.println(" Job : " + min.job + " - Task : " + min.task + " - Machine : " + instance.machine(min));
-            solution.addTaskToMachine(instance.machine(min), min);
-            if(min.task < instance.numTasks - 1) {
-                if(this.priority == Priority.EST_SPT){
-                    est_spt = new EST_SPT(instance, est_spt.MachineTab, est_spt.JobTab);
-                    TreeSet<Task> task = new TreeSet<Task>(est_spt);
-                    task.addAll(taskList);
-                    taskList = task;
-                }else if(this.priority == Priority.EST_LRPT){
-                    est_lrpt = new EST_LRPT(instance, est_lrpt.MachineTab, est_lrpt.JobTab);
-                    TreeSet<Task> task = new TreeSet<Task>(est_lrpt);
-                    task.addAll(taskList);
-                    taskList = task;
-                }
-                taskList.add(new Task(min.job, (min.task + 1)));
+
+            nextTask[job]++;
+            if (nextTask[job] < numTasks) {
+                int next = nextTask[job];
+                int nextMachine = instance.machine(job, next);
+                int start = est ? Math.max(machineFree[nextMachine], end) : 0;
+                ready.push(job, nextMachine, start, rank(instance, job, next), tie(next));
             }
-            // System.out.println("-----------------------------------------------------------------");
         }
         return solution.toSchedule();
-
     }
 
-    class SPT implements Comparator<Task>{
-        private Instance instance;
-
-        public SPT(Instance instance){
-            this.instance = instance;
+    /** Value of the priority rule for the given task, the task with the smallest value is selected first. */
+    private int rank(Instance instance, int job, int task) {
+        switch (priority) {
+            case SPT: case EST_SPT: return instance.duration(job, task);
+            case LPT: case EST_LPT: return -instance.duration(job, task);
+            case SRPT: case EST_SRPT: return instance.remainingWork(job, task);
+            case LRPT: case EST_LRPT: return -instance.remainingWork(job, task);
+            default: throw new RuntimeException("Unknown priority: " + priority);
         }
-        public int compare(Task one, Task two){
-            int result = Integer.compare(instance.duration(one), instance.duration(two));
-            if(result == 0){
-                result = Integer.compare(one.task, two.task);
-                if(result == 0){
-                    result = Integer.compare(one.job, two.job);
-                }
-            }
-            return result;
+    }
+
+    /** Tie breaker before the job number: the task number for rules based on the duration of the task. */
+    private int tie(int task) {
+        switch (priority) {
+            case SPT: case EST_SPT: case LPT: case EST_LPT: return task;
+            default: return 0;
         }
     }
 
-    class LRPT implements Comparator<Task>{
-        private Instance instance;
+    /** Indexed binary heap of the schedulable tasks, with at most one task per job.
+     *
+     * The heap is ordered by (start, rank, tie, job). The position of each job in the heap is maintained so that
+     * the start time of a task can be increased in place, and the jobs waiting for each machine are kept in a
+     * list so that all of them can be updated when the machine becomes busy.
+     */
+    static final class ReadyTasks {
+        // jobs in heap order, and position of each job in the heap (-1 if not in the heap)
+        private final int[] heap;
+        private final int[] position;
+        private int size = 0;
+
+        // keys of the schedulable task of each job
+        private final int[] start;
+        private final int[] rank;
+        private final int[] tie;
 
-        public LRPT(Instance instance){
-            this.instance = instance;
+        // machine of the schedulable task of each job
+        private final int[] machineOf;
+        // for each machine, the jobs whose schedulable task runs on it
+        private final int[][] waiting;
+        private final int[] numWaiting;
+        // position of each job in the waiting list of its machine
+        private final int[] waitingIndex;
+
+        ReadyTasks(int numJobs, int numMachines) {
+            heap = new int[numJobs];
+            position = new int[numJobs];
+            Arrays.fill(position, -1);
+            start = new int[numJobs];
+            rank = new int[numJobs];
+            tie = new int[numJobs];
+            machineOf = new int[numJobs];
+            waiting = new int[numMachines][numJobs];
+            numWaiting = new int[numMachines];
+            waitingIndex = new int[numJobs];
         }
-        public int compare(Task one, Task two){
-            int remainOne = IntStream.range(one.task, instance.numTasks).mapToObj(i -> {
-                return Integer.valueOf(instance.duration(one.job, i));
-            }).collect(Collectors.toList()).stream().mapToInt(Integer::intValue).sum();
-            int remainTwo = IntStream.range(two.task, instance.numTasks).mapToObj(i -> {
-                return Integer.valueOf(instance.duration(two.job, i));
-            }).collect(Collectors.toList()).stream().mapToInt(Integer::intValue).sum();
-
-            int res = -Integer.compare(remainOne, remainTwo);
-            if(res == 0){
-                return Integer.compare(one.job, two.job);
-            }else{
-                return res;
-            }
+
+        boolean isEmpty() {
+            return size == 0;
         }
-    }
 
-    class EST_SPT implements Comparator<Task>{
-        private Instance instance;
-        public int[] MachineTab;
-        public int[] JobTab;
-        public EST_SPT(Instance instance){
-            this.instance = instance;
-            MachineTab = new int[instance.numMachines];
-            JobTab = new int[instance.numJobs];
+        int size() {
+            return size;
         }
 
-        public EST_SPT(Instance instance, int[] machineTab, int[] jobTab){
-            this.instance = instance;
-            MachineTab = machineTab;
-            JobTab = jobTab;
+        /** Adds the schedulable task of the job, which must not already be in the heap. */
+        void push(int job, int machine, int startTime, int rankValue, int tieValue) {
+            start[job] = startTime;
+            rank[job] = rankValue;
+            tie[job] = tieValue;
+            machineOf[job] = machine;
+            waitingIndex[job] = numWaiting[machine];
+            waiting[machine][numWaiting[machine]++] = job;
+
+            heap[size] = job;
+            position[job] = size;
+            size++;
+            siftUp(size - 1);
         }
 
-        public int compare(Task one, Task two){
-            int result = 0;
-            int valOne = Math.max(MachineTab[instance.machine(one)],JobTab[one.job]);
-            int valTwo = Math.max(MachineTab[instance.machine(two)],JobTab[two.job]);
-
-            if ( valOne == valTwo ) {
-                result = Integer.compare(instance.duration(one), instance.duration(two));
-                if(result == 0){
-                    result = Integer.compare(one.task, two.task);
-                    if(result == 0){
-                        result = Integer.compare(one.job, two.job);
-                    }
+        /** Removes and returns the job whose schedulable task has the best priority. */
+        int pop() {
+            return removeAt(0);
+        }
+
+        /** Removes and returns the job at the given position of the heap. */
+        int removeAt(int i) {
+            int job = heap[i];
+            size--;
+            if (i != size) {
+                // move the last job in the hole, and restore the heap order around it
+                int moved = heap[size];
+                heap[i] = moved;
+                position[moved] = i;
+                siftDown(i);
+                if (heap[i] == moved) siftUp(i);
+            }
+            position[job] = -1;
+
+            // remove the job from the waiting list of its machine
+            int machine = machineOf[job];
+            int last = waiting[machine][--numWaiting[machine]];
+            waiting[machine][waitingIndex[job]] = last;
+            waitingIndex[last] = waitingIndex[job];
+            return job;
+        }
+
+        /** Ensures that no task waiting for the machine starts before the given time. */
+        void delayMachine(int machine, int time) {
+            for (int k = 0; k < numWaiting[machine]; k++) {
+                int job = waiting[machine][k];
+                if (start[job] < time) {
+                    start[job] = time;
+                    siftDown(position[job]);
                 }
-            } else{
-                result = Integer.compare(valOne, valTwo);
             }
-            return result;
         }
-    }
 
-    class EST_LRPT implements Comparator<Task>{
-        private Instance instance;
-        public int[] MachineTab;
-        public int[] JobTab;
-        public EST_LRPT(Instance instance){
-            this.instance = instance;
-            MachineTab = new int[instance.numMachines];
-            JobTab = new int[instance.numJobs];
+        // true if the task of job a should be scheduled before the one of job b
+        private boolean before(int a, int b) {
+            if (start[a] != start[b]) return start[a] < start[b];
+            if (rank[a] != rank[b]) return rank[a] < rank[b];
+            if (tie[a] != tie[b]) return tie[a] < tie[b];
+            return a < b;
         }
 
-        public EST_LRPT(Instance instance, int[] machineTab, int[] jobTab) {
-            this.instance = instance;
-            MachineTab = machineTab;
-            JobTab = jobTab;
+        private void siftUp(int i) {
+            int job = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!before(job, heap[parent])) break;
+                heap[i] = heap[parent];
+                position[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = job;
+            position[job] = i;
         }
 
-        public int compare(Task one, Task two){
-            int result = 0;
-            int valOne = Math.max(MachineTab[instance.machine(one)],JobTab[one.job]);
-            int valTwo = Math.max(MachineTab[instance.machine(two)],JobTab[two.job]);
-
-            if ( valOne == valTwo ) {
-                int remainOne = IntStream.range(one.task, instance.numTasks).mapToObj(i -> {
-                    return Integer.valueOf(instance.duration(one.job, i));
-                }).collect(Collectors.toList()).stream().mapToInt(Integer::intValue).sum();
-                int remainTwo = IntStream.range(two.task, instance.numTasks).mapToObj(i -> {
-                    return Integer.valueOf(instance.duration(two.job, i));
-                }).collect(Collectors.toList()).stream().mapToInt(Integer::intValue).sum();
-
-                result = -Integer.compare(remainOne, remainTwo);
-                if(result == 0){
-                    result = Integer.compare(one.job, two.job);
-                }
-            } else{
-                result = Integer.compare(valOne, valTwo);
+        private void siftDown(int i) {
+            int job = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+                if (!before(heap[child], job)) break;
+                heap[i] = heap[child];
+                position[heap[i]] = i;
+                i = child;
             }
-            return result;
+            heap[i] = job;
+            position[job] = i;
         }
     }
 }
@@ -0,0 +1,198 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Decoder;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.CriticalBlocks;
+import jobshop.solvers.neighborhood.Neighborhood;
+
+import java.util.Optional;
+import java.util.Random;
+
+/** Iterated local search: a descent is repeatedly restarted from a perturbation (kick) of the current solution.
+ *
+ * Each iteration kicks the current solution, runs a DescentSolver from it until a local optimum is reached, and
+ * decides with the acceptance criterion whether this local optimum becomes the current solution. After a number of
+ * iterations without improvement of the best solution, the search restarts from a randomized greedy solution.
+ * The search goes on until the deadline, unless the best known result of the instance is reached.
+ */
+public class IteratedLocalSearchSolver implements Solver {
+
+    /** Perturbations applied to the current solution. */
+    public enum Kick {
+        /** Randomly permutes the tasks of a random block of the critical path. */
+        BLOCK_SHUFFLE,
+        /** Reverses a random segment of a random machine. */
+        SEGMENT_REVERSAL
+    }
+
+    /** Criteria to accept the local optimum reached after a kick as the new current solution. */
+    public enum Acceptance {
+        /** Only if it is not worse than the current solution. */
+        BETTER,
+        /** Always. */
+        RANDOM_WALK,
+        /** Always if it is not worse, and otherwise with a probability that decreases with the degradation and
+         * the time left, as in simulated annealing. */
+        ANNEALING
+    }
+
+    /** Maximal length of a reversed segment. */
+    static final int MAX_SEGMENT = 4;
+
+    /** Number of attempts to find a kick that does not create a cycle. */
+    static final int KICK_ATTEMPTS = 10;
+
+    /** Initial temperature of the ANNEALING criterion, as a fraction of the makespan of the initial solution. */
+    static final double INITIAL_TEMPERATURE = 0.01;
+
+    final Neighborhood neighborhood;
+    final GreedySolver.Priority priority;
+    final Kick kick;
+    final Acceptance acceptance;
+    /** Number of elementary kicks in a perturbation. */
+    final int strength;
+    /** Number of iterations without improvement of the best solution before a restart. */
+    final int restartAfter;
+    final long seed;
+
+    /** Number of iterations (kicks) during the last call to solve. */
+    private long lastIterations = 0;
+
+    /** Creates a new iterated local search.
+     *
+     * @param neighborhood Neighborhood of the descents.
+     * @param priority Priority of the greedy solver that gives the initial solution. Restarts use a randomized
+     *                 version of the same greedy solver.
+     * @param kick Kind of perturbation.
+     * @param acceptance Acceptance criterion of the local optima.
+     * @param strength Number of elementary kicks in a perturbation.
+     * @param restartAfter Number of iterations without improvement of the best solution before a restart.
+     * @param seed Seed of the random generator, so that runs can be reproduced (up to the deadline).
+     */
+    public IteratedLocalSearchSolver(Neighborhood neighborhood, GreedySolver.Priority priority, Kick kick,
+                                     Acceptance acceptance, int strength, int restartAfter, long seed) {
+        this.neighborhood = neighborhood;
+        this.priority = priority;
+        this.kick = kick;
+        this.acceptance = acceptance;
+        this.strength = strength;
+        this.restartAfter = restartAfter;
+        this.seed = seed;
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, long deadline) {
+        Random random = new Random(seed);
+        long start = System.currentTimeMillis();
+
+        Optional<Schedule> initial = descent(new GreedySolver(priority), instance, deadline);
+        if(initial.isEmpty()) return initial;
+        Schedule best = initial.get();
+        Schedule current = best;
+        double temperature = INITIAL_TEMPERATURE * best.makespan();
+
+        // stops at the deadline, or when the best known result is matched
+        SearchBudget budget = SearchBudget.until(deadline).withTargetOf(instance);
+        int sinceImprovement = 0;
+        while(!budget.isExhaustedNow() && budget.next(best.makespan())) {
+            Optional<Schedule> candidate;
+            if(sinceImprovement >= restartAfter) {
+                // restart from a new randomized greedy solution
+                candidate = descent(new GreedySolver(priority, 0.2, random.nextLong()), instance, deadline);
+                sinceImprovement = 0;
+            } else {
+                ResourceOrder kicked = new ResourceOrder(current);
+                for(int i = 0 ; i < strength ; i++) {
+                    kick(kicked, random);
+                }
+                candidate = descent((pb, dl) -> kicked.toSchedule(), instance, deadline);
+            }
+            if(candidate.isEmpty()) continue;
+            Schedule next = candidate.get();
+
+            if(next.makespan() < best.makespan()) {
+                best = next;
+                sinceImprovement = 0;
+            } else {
+                sinceImprovement++;
+            }
+            if(accept(current, next, progress(start, deadline), temperature, random)) {
+                current = next;
+            }
+        }
+        lastIterations = budget.iterations();
+        return Optional.of(best);
+    }
+
+    /** Number of iterations (kicks and restarts) during the last call to solve. */
+    public long lastIterations() {
+        return lastIterations;
+    }
+
+    // runs a descent from the solution of the given solver
+    private Optional<Schedule> descent(Solver start, Instance instance, long deadline) {
+        return new DescentSolver(neighborhood, start).solve(instance, deadline);
+    }
+
+    // fraction of the time budget that has been used, 0 if there is no deadline
+    private static double progress(long start, long deadline) {
+        if(deadline == Long.MAX_VALUE || deadline <= start) return 0;
+        return Math.min(1, (double) (System.currentTimeMillis() - start) / (deadline - start));
+    }
+
+    private boolean accept(Schedule current, Schedule next, double progress, double temperature, Random random) {
+        int delta = next.makespan() - current.makespan();
+        switch (acceptance) {
+            case BETTER: return delta <= 0;
+            case RANDOM_WALK: return true;
+            case ANNEALING:
+                if(delta <= 0) return true;
+                // the temperature decreases linearly down to 0 at the deadline
+                double t = temperature * (1 - progress);
+                return t > 0 && random.nextDouble() < Math.exp(-delta / t);
+            default: throw new RuntimeException("Unknown acceptance criterion: " + acceptance);
+        }
+    }
+
+    /** Applies an elementary kick on the order, which stays unchanged if no acyclic kick was found. */
+    void kick(ResourceOrder order, Random random) {
+        Instance instance = order.instance;
+        if(instance.numJobs < 2) return;
+        Decoder decoder = Decoder.forCurrentThread();
+        for(int attempt = 0 ; attempt < KICK_ATTEMPTS ; attempt++) {
+            int machine, first, last;
+            if(kick == Kick.BLOCK_SHUFFLE) {
+                if(!decoder.decode(order)) return;
+                CriticalBlocks blocks = new CriticalBlocks();
+                blocks.extract(decoder, order);
+                if(blocks.numBlocks() == 0) return;
+                int b = random.nextInt(blocks.numBlocks());
+                machine = blocks.machine(b);
+                first = blocks.firstPosition(b);
+                last = blocks.lastPosition(b);
+            } else {
+                machine = random.nextInt(instance.numMachines);
+                int length = 2 + random.nextInt(Math.min(MAX_SEGMENT, instance.numJobs) - 1);
+                first = random.nextInt(instance.numJobs - length + 1);
+                last = first + length - 1;
+            }
+
+            ResourceOrder backup = order.copy();
+            if(kick == Kick.BLOCK_SHUFFLE) {
+                // Fisher-Yates shuffle of the block
+                for(int i = last ; i > first ; i--) {
+                    order.swapTasks(machine, i, first + random.nextInt(i - first + 1));
+                }
+            } else {
+                for(int i = first, j = last ; i < j ; i++, j--) {
+                    order.swapTasks(machine, i, j);
+                }
+            }
+            if(decoder.decode(order)) return;
+            // cyclic, undo the kick and try another one
+            backup.copyInto(order);
+        }
+    }
+}
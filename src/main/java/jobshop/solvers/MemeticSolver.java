@@ -0,0 +1,310 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.JobNumbers;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Memetic algorithm: a genetic algorithm on operation-based permutations (see <code>JobNumbers</code>) whose
+ * offspring are improved by a short tabu search.
+ *
+ * Each generation creates populationSize offspring. An offspring is built from two parents selected by binary
+ * tournament, with a crossover that preserves the order of the tasks of each job. It is possibly mutated by
+ * exchanging two job numbers, then improved by a TabouSolver of a few iterations, and the improved solution
+ * replaces its sequence. The next population is made of the best distinct individuals among the parents and the
+ * offspring.
+ *
+ * Offspring are created and improved in parallel, with one worker per core. Each offspring has its own random
+ * generator, seeded by the main one, so that the result does not depend on the number of workers (up to the
+ * deadline). The number of generations of the last call to solve, and the time they took, are available with
+ * <code>lastGenerations()</code> and <code>lastGenerationsNanos()</code>.
+ */
+public class MemeticSolver implements Solver {
+
+    /** Crossover operators, both keep the order of the tasks of each job. */
+    public enum Crossover {
+        /** Precedence preserving order-based crossover (Zhang et al., 2005): the tasks of a random subset of jobs
+         * keep their positions in the sequence of the first parent, the other tasks fill the remaining positions in
+         * the order of the second parent. */
+        POX,
+        /** Job-based order crossover (Ono et al., 1996), on the machines: on each machine, the jobs of a random
+         * subset keep their positions of the first parent, the other jobs fill the remaining positions in the order
+         * of the second parent. The machine sequences are then turned into a sequence of job numbers, that follows
+         * them unless they create a cycle. */
+        JOX
+    }
+
+    /** Probability to mutate an offspring. */
+    static final double MUTATION_RATE = 0.2;
+
+    /** Randomness of the greedy solver that creates the initial population. */
+    static final double INITIAL_RANDOMNESS = 0.5;
+
+    final Crossover crossover;
+    final int populationSize;
+    /** Iterations and tenure of the tabu search applied to each offspring. */
+    final int tabuIterations;
+    final int tabuTenure;
+    final int numWorkers;
+    final long maxGenerations;
+    final long seed;
+
+    /** Number of generations during the last call to solve, and time spent in them. */
+    private long lastGenerations = 0;
+    private long lastGenerationsNanos = 0;
+
+    /** Creates a new memetic solver.
+     *
+     * @param crossover Crossover operator.
+     * @param populationSize Number of individuals of the population, and of offspring at each generation.
+     * @param tabuIterations Number of iterations of the tabu search that improves each offspring (0 to disable it).
+     * @param tabuTenure Tabu tenure of this search.
+     * @param numWorkers Number of threads that create the offspring, typically the number of available processors.
+     * @param maxGenerations Maximal number of generations.
+     * @param seed Seed of the random generator.
+     */
+    public MemeticSolver(Crossover crossover, int populationSize, int tabuIterations, int tabuTenure,
+                         int numWorkers, long maxGenerations, long seed) {
+        this.crossover = crossover;
+        this.populationSize = populationSize;
+        this.tabuIterations = tabuIterations;
+        this.tabuTenure = tabuTenure;
+        this.numWorkers = numWorkers;
+        this.maxGenerations = maxGenerations;
+        this.seed = seed;
+    }
+
+    /** An individual of the population: its sequence, and the schedule and resource order it decodes into. */
+    private static final class Individual {
+        final JobNumbers genes;
+        final ResourceOrder order;
+        final Schedule schedule;
+
+        Individual(Schedule schedule) {
+            this.schedule = schedule;
+            this.genes = JobNumbers.fromSchedule(schedule);
+            this.order = new ResourceOrder(schedule);
+        }
+
+        int makespan() {
+            return schedule.makespan();
+        }
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, long deadline) {
+        ExecutorService pool = Executors.newFixedThreadPool(numWorkers);
+        try {
+            return Optional.of(search(instance, deadline, pool));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Schedule search(Instance instance, long deadline, ExecutorService pool) {
+        Random random = new Random(seed);
+
+        // initial population: the greedy solution and randomized ones, all improved
+        List<Callable<Individual>> tasks = new ArrayList<>();
+        for(int i = 0 ; i < populationSize ; i++) {
+            Solver greedy = i == 0 ? new GreedySolver(GreedySolver.Priority.EST_LRPT)
+                    : new GreedySolver(GreedySolver.Priority.EST_LRPT, INITIAL_RANDOMNESS, random.nextLong());
+            tasks.add(() -> improve(greedy.solve(instance, deadline).get(), deadline));
+        }
+        List<Individual> population = select(runAll(pool, tasks), populationSize);
+        Individual best = population.get(0);
+
+        long start = System.nanoTime();
+        // stops at the deadline, after maxGenerations, or when the best known result is matched
+        SearchBudget budget = SearchBudget.until(deadline).withMaxIterations(maxGenerations).withTargetOf(instance);
+        long generations = 0;
+        do {
+            if(budget.isExhaustedNow()) break;
+            final List<Individual> parents = population;
+            tasks.clear();
+            for(int i = 0 ; i < populationSize ; i++) {
+                long childSeed = random.nextLong();
+                tasks.add(() -> offspring(parents, deadline, new Random(childSeed)));
+            }
+            List<Individual> candidates = new ArrayList<>(parents);
+            candidates.addAll(runAll(pool, tasks));
+            population = select(candidates, populationSize);
+            if(population.get(0).makespan() < best.makespan()) {
+                best = population.get(0);
+            }
+            generations++;
+        } while(budget.next(best.makespan()));
+
+        lastGenerations = generations;
+        lastGenerationsNanos = System.nanoTime() - start;
+        return best.schedule;
+    }
+
+    /** Number of generations during the last call to solve. */
+    public long lastGenerations() {
+        return lastGenerations;
+    }
+
+    /** Time spent in the generations during the last call to solve, without the initial population. */
+    public long lastGenerationsNanos() {
+        return lastGenerationsNanos;
+    }
+
+    /** Runs all tasks on the pool and returns their results in order. */
+    private static List<Individual> runAll(ExecutorService pool, List<Callable<Individual>> tasks) {
+        List<Individual> results = new ArrayList<>(tasks.size());
+        try {
+            for(Future<Individual> result : pool.invokeAll(tasks)) {
+                results.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("A memetic worker failed", e.getCause());
+        }
+        return results;
+    }
+
+    /** The best distinct individuals, completed with duplicates if there are not enough of them. */
+    private static List<Individual> select(List<Individual> candidates, int size) {
+        List<Individual> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparingInt(Individual::makespan));
+        List<Individual> selected = new ArrayList<>(size);
+        List<Individual> duplicates = new ArrayList<>();
+        Set<ResourceOrder> seen = new HashSet<>();
+        for(Individual individual : sorted) {
+            if(seen.add(individual.order)) {
+                if(selected.size() < size) selected.add(individual);
+            } else {
+                duplicates.add(individual);
+            }
+        }
+        for(int i = 0 ; selected.size() < size && i < duplicates.size() ; i++) {
+            selected.add(duplicates.get(i));
+        }
+        return selected;
+    }
+
+    /** Creates an improved offspring of two parents selected in the population. */
+    private Individual offspring(List<Individual> population, long deadline, Random random) {
+        Individual first = tournament(population, random);
+        Individual second = tournament(population, random);
+        boolean[] subset = randomJobs(first.schedule.instance.numJobs, random);
+        int[] child = crossover == Crossover.POX
+                ? pox(first.genes.jobs, second.genes.jobs, subset)
+                : jox(first.order, second.order, subset);
+        if(random.nextDouble() < MUTATION_RATE) {
+            mutate(child, random);
+        }
+        return improve(new JobNumbers(first.schedule.instance, child).toSchedule().get(), deadline);
+    }
+
+    /** Improves the schedule with a short tabu search. */
+    private Individual improve(Schedule schedule, long deadline) {
+        if(tabuIterations == 0) return new Individual(schedule);
+        TabouSolver tabu = new TabouSolver(new Nowicki(), (instance, dl) -> Optional.of(schedule), tabuIterations, tabuTenure);
+        return new Individual(tabu.solve(schedule.instance, deadline).get());
+    }
+
+    /** Binary tournament: the best of two random individuals. */
+    private static Individual tournament(List<Individual> population, Random random) {
+        Individual a = population.get(random.nextInt(population.size()));
+        Individual b = population.get(random.nextInt(population.size()));
+        return a.makespan() <= b.makespan() ? a : b;
+    }
+
+    /** Random subset of the jobs, that contains at least one job and misses at least one job if possible. */
+    static boolean[] randomJobs(int numJobs, Random random) {
+        boolean[] subset = new boolean[numJobs];
+        for(int job = 0 ; job < numJobs ; job++) {
+            subset[job] = random.nextBoolean();
+        }
+        int in = random.nextInt(numJobs);
+        subset[in] = true;
+        if(numJobs > 1) {
+            int out = (in + 1 + random.nextInt(numJobs - 1)) % numJobs;
+            subset[out] = false;
+        }
+        return subset;
+    }
+
+    /** POX crossover of two sequences of job numbers. */
+    static int[] pox(int[] first, int[] second, boolean[] subset) {
+        int[] child = new int[first.length];
+        int k = 0;
+        for(int i = 0 ; i < first.length ; i++) {
+            if(subset[first[i]]) {
+                child[i] = first[i];
+            } else {
+                while(subset[second[k]]) k++;
+                child[i] = second[k++];
+            }
+        }
+        return child;
+    }
+
+    /** JOX crossover of two resource orders, returned as a sequence of job numbers. */
+    static int[] jox(ResourceOrder first, ResourceOrder second, boolean[] subset) {
+        Instance instance = first.instance;
+        // position[m][j] is the position of job j in the sequence of the child on machine m
+        int[][] position = new int[instance.numMachines][instance.numJobs];
+        for(int machine = 0 ; machine < instance.numMachines ; machine++) {
+            int k = 0;
+            for(int i = 0 ; i < instance.numJobs ; i++) {
+                int job = first.getJobOfMachine(machine, i);
+                if(!subset[job]) {
+                    while(subset[second.getJobOfMachine(machine, k)]) k++;
+                    job = second.getJobOfMachine(machine, k++);
+                }
+                position[machine][job] = i;
+            }
+        }
+
+        // list scheduling of the tasks, each one as close as possible to its position on its machine
+        int[] child = new int[instance.numJobs * instance.numTasks];
+        int[] nextTask = new int[instance.numJobs];
+        int[] scheduledOn = new int[instance.numMachines];
+        for(int i = 0 ; i < child.length ; i++) {
+            int bestJob = -1;
+            int bestDelay = Integer.MAX_VALUE;
+            for(int job = 0 ; job < instance.numJobs ; job++) {
+                if(nextTask[job] == instance.numTasks) continue;
+                int machine = instance.machine(job, nextTask[job]);
+                // 0 if the task is the next one of its machine, positive if other tasks should come first
+                int delay = position[machine][job] - scheduledOn[machine];
+                if(delay < bestDelay) {
+                    bestJob = job;
+                    bestDelay = delay;
+                }
+            }
+            child[i] = bestJob;
+            scheduledOn[instance.machine(bestJob, nextTask[bestJob])]++;
+            nextTask[bestJob]++;
+        }
+        return child;
+    }
+
+    /** Exchanges two job numbers of the sequence. */
+    static void mutate(int[] jobs, Random random) {
+        int i = random.nextInt(jobs.length);
+        int j = random.nextInt(jobs.length);
+        int tmp = jobs[i];
+        jobs[i] = jobs[j];
+        jobs[j] = tmp;
+    }
+}
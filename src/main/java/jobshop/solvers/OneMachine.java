@@ -0,0 +1,163 @@
+package jobshop.solvers;
+
+import jobshop.LowerBounds;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/** Non-preemptive one-machine problems with heads and tails (1|r_j,q_j|Cmax), as they appear when all machines but
+ * one are relaxed.
+ *
+ * The i-th task is released at r[i], runs for p[i] and is delivered q[i] after its end. The value of a sequence is
+ * the largest delivery time, max(C_i + q_i). Sequences are arrays of task indices.
+ */
+public final class OneMachine {
+
+    private OneMachine() {}
+
+    /** Schedule of Schrage: whenever the machine is free, the released task with the largest tail is started.
+     *
+     * @param sequence Output array, filled with the sequence of the tasks.
+     * @return The value of the sequence.
+     */
+    public static int schrage(int[] r, int[] p, int[] q, int[] sequence) {
+        int n = r.length;
+        Integer[] byRelease = new Integer[n];
+        for(int i = 0 ; i < n ; i++) {
+            byRelease[i] = i;
+        }
+        Arrays.sort(byRelease, Comparator.comparingInt(i -> r[i]));
+        PriorityQueue<Integer> available = new PriorityQueue<>(Math.max(1, n),
+                Comparator.<Integer>comparingInt(i -> -q[i]).thenComparingInt(i -> i));
+
+        int time = 0;
+        int next = 0;
+        int value = 0;
+        for(int k = 0 ; k < n ; k++) {
+            if(available.isEmpty()) {
+                time = Math.max(time, r[byRelease[next]]);
+            }
+            while(next < n && r[byRelease[next]] <= time) {
+                available.add(byRelease[next++]);
+            }
+            int i = available.poll();
+            sequence[k] = i;
+            time += p[i];
+            value = Math.max(value, time + q[i]);
+        }
+        return value;
+    }
+
+    /** Value of the given sequence. */
+    public static int evaluate(int[] r, int[] p, int[] q, int[] sequence) {
+        int time = 0;
+        int value = 0;
+        for(int i : sequence) {
+            time = Math.max(time, r[i]) + p[i];
+            value = Math.max(value, time + q[i]);
+        }
+        return value;
+    }
+
+    /** Branch and bound of Carlier (1982), limited to a number of nodes.
+     *
+     * Each node computes the schedule of Schrage. On its critical sequence, a task c with a smaller tail than the
+     * last task of the sequence must be processed either after or before all the tasks J that follow it in the
+     * sequence: the two children respectively increase the head or the tail of c. Children are pruned with the
+     * preemptive bound of <code>LowerBounds.Preemptive</code>, whose work arrays are shared by all nodes.
+     *
+     * @param sequence Output array, filled with the best sequence found.
+     * @param maxNodes Maximal number of nodes, the result is optimal if the search completes within this limit.
+     * @return The value of the best sequence found.
+     */
+    public static int carlier(int[] r, int[] p, int[] q, int[] sequence, int maxNodes) {
+        Carlier search = new Carlier(r, p, q, sequence, maxNodes);
+        search.explore(r.clone(), q.clone());
+        return search.best;
+    }
+
+    private static final class Carlier {
+        // original data, the nodes work on modified copies of the heads and tails
+        final int[] r, p, q;
+        final int[] bestSequence;
+        final int[] sequence;
+        final int maxNodes;
+        final LowerBounds.Preemptive preemptive;
+        int nodes = 0;
+        int best = Integer.MAX_VALUE;
+
+        Carlier(int[] r, int[] p, int[] q, int[] bestSequence, int maxNodes) {
+            this.r = r;
+            this.p = p;
+            this.q = q;
+            this.bestSequence = bestSequence;
+            this.sequence = new int[r.length];
+            this.maxNodes = maxNodes;
+            this.preemptive = new LowerBounds.Preemptive(r.length);
+        }
+
+        void explore(int[] heads, int[] tails) {
+            nodes++;
+            int value = schrage(heads, p, tails, sequence);
+            // the sequence is evaluated with the original data, on which it may be better
+            int actual = evaluate(r, p, q, sequence);
+            if(actual < best) {
+                best = actual;
+                System.arraycopy(sequence, 0, bestSequence, 0, sequence.length);
+            }
+
+            // critical sequence a..b: b is the last task whose delivery time is the value
+            int n = sequence.length;
+            int[] start = new int[n];
+            int time = 0;
+            int b = -1;
+            for(int k = 0 ; k < n ; k++) {
+                int i = sequence[k];
+                start[k] = Math.max(time, heads[i]);
+                time = start[k] + p[i];
+                if(time + tails[i] == value) b = k;
+            }
+            // a is the first task of the run without idle time that ends with b
+            int a = b;
+            while(a > 0 && start[a] == start[a - 1] + p[sequence[a - 1]]) a--;
+            // c is the last task of the critical sequence with a smaller tail than b
+            int c = -1;
+            for(int k = b - 1 ; k >= a ; k--) {
+                if(tails[sequence[k]] < tails[sequence[b]]) {
+                    c = k;
+                    break;
+                }
+            }
+            // the schedule of Schrage is optimal for these heads and tails
+            if(c < 0) return;
+
+            int minHead = Integer.MAX_VALUE;
+            int minTail = Integer.MAX_VALUE;
+            int sum = 0;
+            for(int k = c + 1 ; k <= b ; k++) {
+                int i = sequence[k];
+                minHead = Math.min(minHead, heads[i]);
+                minTail = Math.min(minTail, tails[i]);
+                sum += p[i];
+            }
+            int task = sequence[c];
+
+            // c after all tasks of J
+            int old = heads[task];
+            heads[task] = Math.max(old, minHead + sum);
+            if(nodes < maxNodes && preemptive.bound(heads, p, tails) < best) {
+                explore(heads, tails);
+            }
+            heads[task] = old;
+
+            // c before all tasks of J
+            old = tails[task];
+            tails[task] = Math.max(old, minTail + sum);
+            if(nodes < maxNodes && preemptive.bound(heads, p, tails) < best) {
+                explore(heads, tails);
+            }
+            tails[task] = old;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.Nowicki;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Multi-start tabu search: independent tabu walks are run in parallel from diversified initial solutions.
+ *
+ * Each worker runs its own TabouSolver on a thread of a fixed pool. The starting points are:
+ *  - worker 0: the greedy solver with the main priority,
+ *  - workers 1 to 3: the greedy solver with the other EST/non-EST priorities,
+ *  - next workers: alternately a randomized greedy solver and a random perturbation of the main greedy solution.
+ * All workers publish their improvements in a shared best solution, which is returned once all walks have stopped:
+ * at the deadline, after maxIter iterations, or as soon as one of them matches the best known result.
+ */
+public class ParallelTabouSolver implements Solver {
+
+    /** Priority of the greedy solver that provides the main starting point. */
+    final GreedySolver.Priority priority;
+    /** Number of tabu walks run in parallel. */
+    final int numWorkers;
+    private final long maxIter;
+    private final int dureeTabou;
+
+    /** Number of iterations of each worker during the last call to solve. */
+    private long[] lastIterations = new long[0];
+
+    /** Creates a new parallel tabu solver.
+     *
+     * @param priority Priority of the greedy solver used for the first starting point.
+     * @param numWorkers Number of independent tabu walks, typically the number of available processors.
+     * @param maxIter Maximal number of iterations of each walk (Long.MAX_VALUE to search until the deadline).
+     * @param dureeTabou Tabu tenure of each walk.
+     */
+    public ParallelTabouSolver(GreedySolver.Priority priority, int numWorkers, long maxIter, int dureeTabou) {
+        this.priority = priority;
+        this.numWorkers = numWorkers;
+        this.maxIter = maxIter;
+        this.dureeTabou = dureeTabou;
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, long deadline) {
+        AtomicReference<Schedule> best = new AtomicReference<>();
+        List<TabouSolver> workers = new ArrayList<>();
+        for(int w = 0 ; w < numWorkers ; w++) {
+            TabouSolver worker = new TabouSolver(new Nowicki(), startingSolver(w), maxIter, dureeTabou);
+            worker.sharedBest = best;
+            workers.add(worker);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(numWorkers);
+        try {
+            List<Future<Optional<Schedule>>> results = new ArrayList<>();
+            for(TabouSolver worker : workers) {
+                results.add(pool.submit(() -> worker.solve(instance, deadline)));
+            }
+            for(Future<Optional<Schedule>> result : results) {
+                // wait for all workers, the best solution has already been published by each of them
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("A tabu worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        lastIterations = workers.stream().mapToLong(w -> w.lastIterations).toArray();
+        return Optional.ofNullable(best.get());
+    }
+
+    /** Number of iterations performed by each worker during the last call to solve. */
+    public long[] iterationsPerWorker() {
+        return lastIterations.clone();
+    }
+
+    /** Returns the solver providing the starting point of the given worker. */
+    Solver startingSolver(int worker) {
+        // the other deterministic priorities, starting with the closest ones
+        List<GreedySolver.Priority> others = new ArrayList<>(Arrays.asList(
+                GreedySolver.Priority.EST_LRPT, GreedySolver.Priority.EST_SPT,
+                GreedySolver.Priority.LRPT, GreedySolver.Priority.SPT));
+        others.remove(priority);
+
+        if(worker == 0) {
+            return new GreedySolver(priority);
+        } else if(worker <= others.size()) {
+            return new GreedySolver(others.get(worker - 1));
+        } else if(worker % 2 == 0) {
+            return new GreedySolver(priority, 0.1, worker);
+        } else {
+            Solver greedy = new GreedySolver(priority);
+            Random random = new Random(worker);
+            return (instance, deadline) -> greedy.solve(instance, deadline).map(s -> perturb(s, random));
+        }
+    }
+
+    /** Applies random swaps of adjacent tasks on the schedule, skipping the ones that would create a cycle. */
+    static Schedule perturb(Schedule schedule, Random random) {
+        Instance instance = schedule.instance;
+        if(instance.numJobs < 2) return schedule;
+        ResourceOrder order = new ResourceOrder(schedule);
+        int numSwaps = Math.max(1, instance.numJobs * instance.numMachines / 10);
+        for(int i = 0 ; i < numSwaps ; i++) {
+            int machine = random.nextInt(instance.numMachines);
+            int index = random.nextInt(instance.numJobs - 1);
+            order.swapTasks(machine, index, index + 1);
+            if(order.toSchedule().isEmpty()) {
+                // cyclic, revert the swap
+                order.swapTasks(machine, index, index + 1);
+            }
+        }
+        return order.toSchedule().get();
+    }
+}
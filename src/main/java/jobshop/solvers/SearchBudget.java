@@ -0,0 +1,159 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResults;
+import jobshop.Instance;
+import jobshop.LowerBounds;
+
+/** Limits on the effort of an iterative search: the search stops as soon as one of them is reached.
+ *
+ * The available limits are:
+ *  - a deadline, measured with <code>System.nanoTime()</code>,
+ *  - a maximal number of iterations,
+ *  - a maximal number of consecutive iterations without improvement of the best makespan,
+ *  - a target makespan, typically the best known result of the instance or a proven lower bound.
+ *
+ * The search must call <code>next(bestMakespan)</code> once per iteration. Reading the clock is not free, so it is
+ * only done every few iterations: the interval between two readings adapts to the duration of an iteration so that
+ * the clock is read about every <code>CLOCK_CHECK_PERIOD_NS</code> nanoseconds.
+ * A budget is meant to be used by a single search on a single thread.
+ */
+public final class SearchBudget {
+
+    /** Targeted time between two readings of the clock. */
+    static final long CLOCK_CHECK_PERIOD_NS = 500_000;
+
+    /** Maximal number of iterations between two readings of the clock. */
+    static final long MAX_CLOCK_CHECK_INTERVAL = 1024;
+
+    private final long startNanos;
+    private final long deadlineNanos;
+    private long maxIterations = Long.MAX_VALUE;
+    private long maxNoImprovement = Long.MAX_VALUE;
+    private int targetMakespan = 0;
+
+    private long iterations = 0;
+    private long lastImprovement = 0;
+    private int bestMakespan = Integer.MAX_VALUE;
+    private boolean exhausted = false;
+
+    // iterations remaining before the next reading of the clock
+    private long untilClockCheck = 1;
+    // number of iterations between the last two readings of the clock, and time of the last reading
+    private long clockCheckInterval = 1;
+    private long lastClockCheck;
+
+    private SearchBudget(long startNanos, long deadlineNanos) {
+        this.startNanos = startNanos;
+        this.deadlineNanos = deadlineNanos;
+        this.lastClockCheck = startNanos;
+    }
+
+    /** Creates a budget that expires at the given deadline.
+     *
+     * @param deadline Absolute time in milliseconds, comparable with System.currentTimeMillis(), as given to
+     *                 <code>Solver.solve</code>.
+     */
+    public static SearchBudget until(long deadline) {
+        long remainingMs = deadline - System.currentTimeMillis();
+        long now = System.nanoTime();
+        long remainingNs = remainingMs >= Long.MAX_VALUE / 2_000_000 ? Long.MAX_VALUE / 2 : remainingMs * 1_000_000;
+        return new SearchBudget(now, now + remainingNs);
+    }
+
+    /** Additionally stops the search after the given number of iterations. */
+    public SearchBudget withMaxIterations(long maxIterations) {
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    /** Additionally stops the search after the given number of consecutive iterations without improvement. */
+    public SearchBudget withMaxNoImprovement(long maxNoImprovement) {
+        this.maxNoImprovement = maxNoImprovement;
+        return this;
+    }
+
+    /** Additionally stops the search as soon as a makespan lower or equal to the target is found. */
+    public SearchBudget withTarget(int targetMakespan) {
+        this.targetMakespan = Math.max(this.targetMakespan, targetMakespan);
+        return this;
+    }
+
+    /** Stops the search as soon as the best known result of the instance is matched, if it is known, or as soon as
+     * the optimality of the best solution is proven by the lower bound of the instance.
+     */
+    public SearchBudget withTargetOf(Instance instance) {
+        if(BestKnownResults.isKnown(instance.name)) {
+            withTarget(BestKnownResults.of(instance.name));
+        }
+        return withLowerBoundOf(instance);
+    }
+
+    /** Stops the search as soon as a makespan equal to the lower bound of the instance is found: it is optimal. */
+    public SearchBudget withLowerBoundOf(Instance instance) {
+        return withTarget(LowerBounds.of(instance));
+    }
+
+    /** Records the end of an iteration.
+     *
+     * @param best Best makespan found so far by the search.
+     * @return True if the search may perform another iteration, false if the budget is exhausted.
+     */
+    public boolean next(int best) {
+        iterations++;
+        if(best < bestMakespan) {
+            bestMakespan = best;
+            lastImprovement = iterations;
+        }
+        if(iterations >= maxIterations
+                || iterations - lastImprovement >= maxNoImprovement
+                || bestMakespan <= targetMakespan) {
+            exhausted = true;
+        } else if(--untilClockCheck <= 0) {
+            checkClock();
+        }
+        return !exhausted;
+    }
+
+    /** Reads the clock and adapts the number of iterations before the next reading. */
+    private void checkClock() {
+        long now = System.nanoTime();
+        if(now - deadlineNanos >= 0) {
+            exhausted = true;
+            return;
+        }
+        long perIteration = Math.max(1, (now - lastClockCheck) / clockCheckInterval);
+        long interval = CLOCK_CHECK_PERIOD_NS / perIteration;
+        // never plan to read the clock after the deadline
+        interval = Math.min(interval, (deadlineNanos - now) / perIteration);
+        clockCheckInterval = Math.max(1, Math.min(MAX_CLOCK_CHECK_INTERVAL, interval));
+        untilClockCheck = clockCheckInterval;
+        lastClockCheck = now;
+    }
+
+    /** Returns true if the search should stop. */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /** Reads the clock immediately and returns true if the search should stop.
+     * This is meant for solvers whose steps are too long for the amortized check of <code>next</code>.
+     */
+    public boolean isExhaustedNow() {
+        if(System.nanoTime() - deadlineNanos >= 0) {
+            exhausted = true;
+        }
+        return exhausted;
+    }
+
+    /** Fraction of the time between the creation of the budget and its deadline that has elapsed, read from the
+     * clock. It is at least 1 once the deadline is reached, and stays close to 0 without a deadline.
+     */
+    public double elapsedFraction() {
+        return (double) (System.nanoTime() - startNanos) / Math.max(1, deadlineNanos - startNanos);
+    }
+
+    /** Number of iterations recorded so far. */
+    public long iterations() {
+        return iterations;
+    }
+}
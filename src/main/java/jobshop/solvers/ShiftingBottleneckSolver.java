@@ -0,0 +1,233 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/** Shifting bottleneck heuristic of Adams, Balas and Zawack (1988).
+ *
+ * Machines are sequenced one at a time. At each step, the heads and tails of all tasks are computed in the graph
+ * made of the job arcs and of the sequences of the machines already sequenced. Each remaining machine is then
+ * relaxed into a one-machine problem with these heads and tails, solved by the branch and bound of Carlier
+ * (see <code>OneMachine</code>). The machine whose problem has the largest value is the bottleneck: it is sequenced
+ * with the solution of its problem. Then, each previously sequenced machine is re-optimized in turn, by removing its
+ * sequence and solving its one-machine problem again.
+ *
+ * A sequence that would create a cycle with the other sequences is replaced by the schedule of Schrage, which
+ * respects the paths between the tasks of the machine. Once the deadline is reached, the remaining machines are
+ * sequenced without Carlier's search nor re-optimization.
+ * The solution is a good starting point for the local searches (see <code>Solver.getSolver</code>).
+ */
+public class ShiftingBottleneckSolver implements Solver {
+
+    /** Number of re-optimization cycles over the sequenced machines after each new bottleneck. */
+    final int reoptimizationCycles;
+
+    /** Maximal number of nodes of each one-machine branch and bound. */
+    final int maxNodes;
+
+    /** Creates a new shifting bottleneck solver.
+     *
+     * @param reoptimizationCycles Number of re-optimization cycles after each new bottleneck (0 to disable them).
+     * @param maxNodes Maximal number of nodes of each one-machine branch and bound (1 for the schedule of Schrage).
+     */
+    public ShiftingBottleneckSolver(int reoptimizationCycles, int maxNodes) {
+        this.reoptimizationCycles = reoptimizationCycles;
+        this.maxNodes = maxNodes;
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, long deadline) {
+        Search search = new Search(instance);
+        // for each machine, sequence of jobs or null if the machine has not been sequenced yet
+        int[][] sequences = new int[instance.numMachines][];
+        // machines in the order in which they were sequenced
+        int[] sequenced = new int[instance.numMachines];
+
+        for(int step = 0 ; step < instance.numMachines ; step++) {
+            boolean late = System.currentTimeMillis() >= deadline;
+            int nodes = late ? 1 : maxNodes;
+            boolean acyclic = search.headsAndTails(sequences);
+            assert acyclic;
+
+            // the bottleneck is the machine whose one-machine problem has the largest value
+            int bottleneck = -1;
+            int bottleneckValue = -1;
+            int[] bottleneckSequence = null;
+            for(int machine = 0 ; machine < instance.numMachines ; machine++) {
+                if(sequences[machine] != null) continue;
+                int[] sequence = new int[instance.numJobs];
+                int value = search.sequence(machine, nodes, sequence);
+                if(value > bottleneckValue) {
+                    bottleneck = machine;
+                    bottleneckValue = value;
+                    bottleneckSequence = sequence;
+                }
+            }
+            search.fix(sequences, bottleneck, bottleneckSequence);
+            sequenced[step] = bottleneck;
+
+            if(late) continue;
+            for(int cycle = 0 ; cycle < reoptimizationCycles ; cycle++) {
+                for(int k = 0 ; k < step && System.currentTimeMillis() < deadline ; k++) {
+                    int machine = sequenced[k];
+                    int[] previous = sequences[machine];
+                    sequences[machine] = null;
+                    acyclic = search.headsAndTails(sequences);
+                    assert acyclic;
+                    int[] sequence = new int[instance.numJobs];
+                    search.sequence(machine, maxNodes, sequence);
+                    search.fix(sequences, machine, sequence);
+                    // the new sequence is not necessarily better for the whole graph, keep the best one
+                    int[] reoptimized = sequences[machine];
+                    int makespan = search.makespan(sequences);
+                    sequences[machine] = previous;
+                    if(makespan <= search.makespan(sequences)) {
+                        sequences[machine] = reoptimized;
+                    }
+                }
+            }
+        }
+
+        ResourceOrder order = new ResourceOrder(instance);
+        for(int machine = 0 ; machine < instance.numMachines ; machine++) {
+            for(int job : sequences[machine]) {
+                order.addTaskToMachine(machine, job, instance.task_with_machine(job, machine));
+            }
+        }
+        return order.toSchedule();
+    }
+
+    /** Graph of the job arcs and of the sequenced machines, with its heads and tails. */
+    private static final class Search {
+        final Instance instance;
+        final int size;
+        final int[] head;
+        final int[] tail;
+        // machine predecessor and successor of each task, -1 if none or if its machine is not sequenced
+        final int[] machinePred;
+        final int[] machineSucc;
+        final int[] topological;
+        final int[] inDegree;
+        // data of a one-machine problem
+        final int[] r, p, q;
+
+        Search(Instance instance) {
+            this.instance = instance;
+            this.size = instance.numJobs * instance.numTasks;
+            this.head = new int[size];
+            this.tail = new int[size];
+            this.machinePred = new int[size];
+            this.machineSucc = new int[size];
+            this.topological = new int[size];
+            this.inDegree = new int[size];
+            this.r = new int[instance.numJobs];
+            this.p = new int[instance.numJobs];
+            this.q = new int[instance.numJobs];
+        }
+
+        int taskOn(int job, int machine) {
+            return instance.taskId(job, instance.task_with_machine(job, machine));
+        }
+
+        /** Computes the heads and tails of all tasks with the given sequences.
+         *
+         * @return False if the sequences create a cycle.
+         */
+        boolean headsAndTails(int[][] sequences) {
+            Arrays.fill(machinePred, -1);
+            Arrays.fill(machineSucc, -1);
+            for(int machine = 0 ; machine < sequences.length ; machine++) {
+                if(sequences[machine] == null) continue;
+                for(int k = 1 ; k < sequences[machine].length ; k++) {
+                    int before = taskOn(sequences[machine][k - 1], machine);
+                    int after = taskOn(sequences[machine][k], machine);
+                    machinePred[after] = before;
+                    machineSucc[before] = after;
+                }
+            }
+            int end = 0;
+            for(int t = 0 ; t < size ; t++) {
+                head[t] = 0;
+                inDegree[t] = (t % instance.numTasks > 0 ? 1 : 0) + (machinePred[t] >= 0 ? 1 : 0);
+                if(inDegree[t] == 0) topological[end++] = t;
+            }
+            // Kahn's algorithm, the heads are relaxed along the topological order
+            for(int i = 0 ; i < end ; i++) {
+                int t = topological[i];
+                int taskEnd = head[t] + instance.duration(t);
+                if(t % instance.numTasks < instance.numTasks - 1) {
+                    head[t + 1] = Math.max(head[t + 1], taskEnd);
+                    if(--inDegree[t + 1] == 0) topological[end++] = t + 1;
+                }
+                int s = machineSucc[t];
+                if(s >= 0) {
+                    head[s] = Math.max(head[s], taskEnd);
+                    if(--inDegree[s] == 0) topological[end++] = s;
+                }
+            }
+            if(end < size) return false;
+
+            for(int i = size - 1 ; i >= 0 ; i--) {
+                int t = topological[i];
+                int value = 0;
+                if(t % instance.numTasks < instance.numTasks - 1) {
+                    value = instance.duration(t + 1) + tail[t + 1];
+                }
+                int s = machineSucc[t];
+                if(s >= 0) {
+                    value = Math.max(value, instance.duration(s) + tail[s]);
+                }
+                tail[t] = value;
+            }
+            return true;
+        }
+
+        /** Makespan of the graph with the given sequences, Integer.MAX_VALUE if they create a cycle. */
+        int makespan(int[][] sequences) {
+            if(!headsAndTails(sequences)) return Integer.MAX_VALUE;
+            int makespan = 0;
+            for(int job = 0 ; job < instance.numJobs ; job++) {
+                int last = instance.taskId(job, instance.numTasks - 1);
+                makespan = Math.max(makespan, head[last] + instance.duration(last));
+            }
+            return makespan;
+        }
+
+        /** Solves the one-machine problem of the machine with the current heads and tails.
+         *
+         * @param sequence Output array, filled with the jobs in the order of the solution.
+         * @return The value of the solution, a lower bound of the makespan once the machine is sequenced.
+         */
+        int sequence(int machine, int maxNodes, int[] sequence) {
+            loadProblem(machine);
+            return maxNodes <= 1 ? OneMachine.schrage(r, p, q, sequence) : OneMachine.carlier(r, p, q, sequence, maxNodes);
+        }
+
+        private void loadProblem(int machine) {
+            for(int job = 0 ; job < instance.numJobs ; job++) {
+                int t = taskOn(job, machine);
+                r[job] = head[t];
+                p[job] = instance.duration(t);
+                q[job] = tail[t];
+            }
+        }
+
+        /** Sequences the machine. The heads and tails must be the ones of the graph without this machine. If the
+         * sequence creates a cycle, the schedule of Schrage is used instead.
+         */
+        void fix(int[][] sequences, int machine, int[] sequence) {
+            sequences[machine] = sequence;
+            if(headsAndTails(sequences)) return;
+            sequences[machine] = null;
+            headsAndTails(sequences);
+            loadProblem(machine);
+            int[] safe = new int[instance.numJobs];
+            OneMachine.schrage(r, p, q, safe);
+            sequences[machine] = safe;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.CriticalBlocks;
+import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+
+import java.util.Optional;
+import java.util.Random;
+
+/** Simulated annealing on the N1 neighborhood: swaps of two adjacent tasks of a critical block.
+ *
+ * Instead of enumerating the neighborhood, each step samples a single random move, computes its exact makespan
+ * incrementally with a SwapEvaluator, and accepts it if it does not increase the makespan or otherwise with
+ * probability exp(-delta / T). Only an accepted move requires to reload the evaluator.
+ *
+ * The temperature is calibrated on the instance: the initial temperature accepts an average degradation with
+ * probability 1/2, and the final one accepts a degradation of 1 with probability FINAL_ACCEPTANCE. In between, it
+ * decreases geometrically with the fraction of the budget (time or iterations) already used.
+ */
+public class SimulatedAnnealingSolver implements Solver {
+
+    /** Number of random moves evaluated to calibrate the initial temperature. */
+    static final int CALIBRATION_SAMPLES = 100;
+
+    /** Probability to accept a degradation of 1 at the end of the search. */
+    static final double FINAL_ACCEPTANCE = 0.001;
+
+    /** Number of steps between two updates of the temperature. */
+    static final int TEMPERATURE_UPDATE_PERIOD = 256;
+
+    final GreedySolver.Priority priority;
+    final long maxIter;
+    final long seed;
+
+    /** Number of steps during the last call to solve. */
+    private long lastIterations = 0;
+
+    /** Creates a new simulated annealing solver.
+     *
+     * @param priority Priority of the greedy solver that gives the initial solution.
+     * @param maxIter Maximal number of steps, the temperature reaches its final value after the deadline or
+     *                after maxIter steps, whichever comes first.
+     * @param seed Seed of the random generator.
+     */
+    public SimulatedAnnealingSolver(GreedySolver.Priority priority, long maxIter, long seed) {
+        this.priority = priority;
+        this.maxIter = maxIter;
+        this.seed = seed;
+    }
+
+    @Override
+    public Optional<Schedule> solve(Instance instance, long deadline) {
+        Optional<Schedule> initial = new GreedySolver(priority).solve(instance, deadline);
+        if(initial.isEmpty()) return initial;
+        Random random = new Random(seed);
+
+        ResourceOrder current = new ResourceOrder(initial.get());
+        ResourceOrder best = current.copy();
+        SwapEvaluator evaluator = new SwapEvaluator(instance);
+        evaluator.reset(current);
+        int currentMakespan = evaluator.makespan();
+        int bestMakespan = currentMakespan;
+
+        final double initialTemperature = calibrate(evaluator, current, random);
+        final double finalTemperature = -1 / Math.log(FINAL_ACCEPTANCE);
+        double temperature = initialTemperature;
+
+        // stops at the deadline, after maxIter steps, or when the best known result is matched
+        SearchBudget budget = SearchBudget.until(deadline).withMaxIterations(maxIter).withTargetOf(instance);
+        do {
+            Nowicki.Swap swap = randomMove(evaluator.criticalBlocks(), random);
+            // no block: the critical path is a single job, the solution is optimal
+            if(swap == null) break;
+
+            int makespan = evaluator.makespan(swap);
+            int delta = makespan - currentMakespan;
+            if(delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                current.swapTasks(swap.machine, swap.t1, swap.t2);
+                evaluator.reset(current);
+                currentMakespan = makespan;
+                if(makespan < bestMakespan) {
+                    bestMakespan = makespan;
+                    current.copyInto(best);
+                }
+            }
+
+            if(budget.iterations() % TEMPERATURE_UPDATE_PERIOD == 0) {
+                double progress = Math.max((double) budget.iterations() / maxIter, budget.elapsedFraction());
+                progress = Math.min(1, progress);
+                temperature = initialTemperature * Math.pow(finalTemperature / initialTemperature, progress);
+            }
+        } while(budget.next(bestMakespan));
+
+        lastIterations = budget.iterations();
+        return best.toSchedule();
+    }
+
+    /** Number of steps during the last call to solve. */
+    public long lastIterations() {
+        return lastIterations;
+    }
+
+    /** Initial temperature, such that the average degradation of a random move is accepted half of the time. */
+    private static double calibrate(SwapEvaluator evaluator, ResourceOrder order, Random random) {
+        long sum = 0;
+        int count = 0;
+        for(int i = 0 ; i < CALIBRATION_SAMPLES ; i++) {
+            Nowicki.Swap swap = randomMove(evaluator.criticalBlocks(), random);
+            if(swap == null) break;
+            int delta = evaluator.makespan(swap) - evaluator.makespan();
+            if(delta > 0) {
+                sum += delta;
+                count++;
+            }
+        }
+        double average = count == 0 ? 1 : (double) sum / count;
+        return Math.max(1, average) / Math.log(2);
+    }
+
+    /** Uniformly selects a swap of two adjacent tasks of a critical block, null if there is no block. */
+    static Nowicki.Swap randomMove(CriticalBlocks blocks, Random random) {
+        int numMoves = 0;
+        for(int b = 0 ; b < blocks.numBlocks() ; b++) {
+            numMoves += blocks.lastPosition(b) - blocks.firstPosition(b);
+        }
+        if(numMoves == 0) return null;
+        int move = random.nextInt(numMoves);
+        for(int b = 0 ; b < blocks.numBlocks() ; b++) {
+            int size = blocks.lastPosition(b) - blocks.firstPosition(b);
+            if(move < size) {
+                int t1 = blocks.firstPosition(b) + move;
+                return new Nowicki.Swap(blocks.machine(b), t1, t1 + 1);
+            }
+            move -= size;
+        }
+        throw new IllegalStateException();
+    }
+}
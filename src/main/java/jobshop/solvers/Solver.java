@@ -1,8 +1,11 @@
 package jobshop.solvers;
 
 import jobshop.Instance;
+import jobshop.SolutionStore;
 import jobshop.encodings.Schedule;
+import jobshop.solvers.neighborhood.BalasVazacopoulos;
 import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.Zhang;
 
 import java.util.Optional;
 
@@ -20,12 +23,38 @@ public interface Solver {
 
     /** Static factory method to create a new solver based on its name. */
     static Solver getSolver(String name) {
+        return getSolver(name, null);
+    }
+
+    /** Static factory method to create a new solver based on its name.
+     *
+     * @param warmStart If not null, the descent and tabu solvers start from the solution recorded in this store
+     *                  for the same solver name, and only use their initial solver when there is none.
+     */
+    static Solver getSolver(String name, SolutionStore warmStart) {
         switch (name) {
             case "basic": return new BasicSolver();
-            case "tabou_est_spt": return new TabouSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_SPT), 2000,100);
-            case "tabou_est_lrpt": return new TabouSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT), 2000, 100);
-            case "descent_est_spt": return new DescentSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_SPT));
-            case "descent_est_lrpt": return new DescentSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT));
+            case "tabou_est_spt": return new TabouSolver(new Nowicki(), initial(name, GreedySolver.Priority.EST_SPT, warmStart), Long.MAX_VALUE, 100);
+            case "tabou_est_lrpt": return new TabouSolver(new Nowicki(), initial(name, GreedySolver.Priority.EST_LRPT, warmStart), Long.MAX_VALUE, 100);
+            case "tabou_par_est_lrpt": return new TabouSolver(new Nowicki(), initial(name, GreedySolver.Priority.EST_LRPT, warmStart), Long.MAX_VALUE, 100, Runtime.getRuntime().availableProcessors());
+            case "ptabou_est_spt": return new ParallelTabouSolver(GreedySolver.Priority.EST_SPT, Runtime.getRuntime().availableProcessors(), Long.MAX_VALUE, 100);
+            case "ptabou_est_lrpt": return new ParallelTabouSolver(GreedySolver.Priority.EST_LRPT, Runtime.getRuntime().availableProcessors(), Long.MAX_VALUE, 100);
+            case "descent_est_spt": return new DescentSolver(new Nowicki(), initial(name, GreedySolver.Priority.EST_SPT, warmStart));
+            case "descent_est_lrpt": return new DescentSolver(new Nowicki(), initial(name, GreedySolver.Priority.EST_LRPT, warmStart));
+            case "descent_n6_est_lrpt": return new DescentSolver(new BalasVazacopoulos(), initial(name, GreedySolver.Priority.EST_LRPT, warmStart));
+            case "descent_n7_est_lrpt": return new DescentSolver(new Zhang(), initial(name, GreedySolver.Priority.EST_LRPT, warmStart));
+            case "descent_sb": return new DescentSolver(new Nowicki(), initial(name, new ShiftingBottleneckSolver(1, 100), warmStart));
+            case "tabou_sb": return new TabouSolver(new Nowicki(), initial(name, new ShiftingBottleneckSolver(1, 100), warmStart), Long.MAX_VALUE, 100);
+            case "ils_est_lrpt": return new IteratedLocalSearchSolver(new Nowicki(), GreedySolver.Priority.EST_LRPT,
+                    IteratedLocalSearchSolver.Kick.BLOCK_SHUFFLE, IteratedLocalSearchSolver.Acceptance.BETTER, 2, 50, 0);
+            case "ils_rev_est_lrpt": return new IteratedLocalSearchSolver(new Nowicki(), GreedySolver.Priority.EST_LRPT,
+                    IteratedLocalSearchSolver.Kick.SEGMENT_REVERSAL, IteratedLocalSearchSolver.Acceptance.ANNEALING, 2, 50, 0);
+            case "memetic_pox": return new MemeticSolver(MemeticSolver.Crossover.POX, 20, 200, 10, Runtime.getRuntime().availableProcessors(), Long.MAX_VALUE, 0);
+            case "memetic_jox": return new MemeticSolver(MemeticSolver.Crossover.JOX, 20, 200, 10, Runtime.getRuntime().availableProcessors(), Long.MAX_VALUE, 0);
+            // the incumbent search is capped, so that the branch and bound gets the rest of the time
+            case "bnb": return new BranchAndBoundSolver(new TabouSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT), 2000, 100), Runtime.getRuntime().availableProcessors());
+            case "sa_est_lrpt": return new SimulatedAnnealingSolver(GreedySolver.Priority.EST_LRPT, Long.MAX_VALUE, 0);
+            case "sb": return new ShiftingBottleneckSolver(1, 100);
             case "spt": return new GreedySolver(GreedySolver.Priority.SPT);
             case "lrpt": return new GreedySolver(GreedySolver.Priority.LRPT);
             case "est_spt": return new GreedySolver(GreedySolver.Priority.EST_SPT);
@@ -35,4 +64,14 @@ public interface Solver {
         }
     }
 
+    /** Solver providing the initial solution of a local search: greedy, possibly warm started from a store. */
+    private static Solver initial(String name, GreedySolver.Priority priority, SolutionStore warmStart) {
+        return initial(name, new GreedySolver(priority), warmStart);
+    }
+
+    /** Solver providing the initial solution of a local search: the given one, possibly warm started from a store. */
+    private static Solver initial(String name, Solver base, SolutionStore warmStart) {
+        return warmStart == null ? base : warmStart.warmStart(name, base);
+    }
+
 }
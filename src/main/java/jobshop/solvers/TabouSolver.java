@@ -5,78 +5,220 @@ import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Schedule;
 import jobshop.solvers.neighborhood.Neighborhood;
 import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.SwapEvaluator;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 /** An empty shell to implement a descent solver. */
 public class TabouSolver implements Solver {
 
     final Nowicki neighborhood;
     final Solver baseSolver;
-    private int maxIter;
+    private long maxIter;
     private int dureeTabou;
 
+    /** Number of threads used to evaluate the neighbors of an iteration (1 for a sequential evaluation). */
+    private final int parallelism;
+
+    /** Below this number of neighbors that may be selected, they are evaluated sequentially.
+     * Dispatching a parallel loop on the pool costs about as much as 2 exact evaluations of a swap on la40 or ta50,
+     * and 10 on ft10 (see JobshopBenchmark): with two threads, fewer neighbors do not pay for the dispatch. */
+    static final int MIN_PARALLEL_NEIGHBORS = 8;
+
+    /** If not null, every improvement of the best solution is also published in this reference. */
+    AtomicReference<Schedule> sharedBest = null;
+
+    /** Number of iterations performed by the last call to solve. */
+    long lastIterations = 0;
+
     /** Creates a new descent solver with a given neighborhood and a solver for the initial solution.
      *
      * @param neighborhood Neighborhood object that should be used to generates neighbor solutions to the current candidate.
      * @param baseSolver A solver to provide the initial solution.
+     * @param maxIter Maximal number of iterations (Long.MAX_VALUE to search until the deadline).
+     * @param dureeTabou Number of iterations during which swapping back two tasks is forbidden.
+     */
+    public TabouSolver(Neighborhood neighborhood, Solver baseSolver, long maxIter, int dureeTabou) {
+        this(neighborhood, baseSolver, maxIter, dureeTabou, 1);
+    }
+
+    /** Creates a new tabu solver that evaluates the neighbors of each iteration on several threads.
+     *
+     * The neighbor selected at each iteration does not depend on the number of threads: ties are always broken
+     * in favor of the first neighbor generated by the neighborhood.
+     *
+     * @param parallelism Number of threads of the work-stealing pool used to evaluate the neighbors.
      */
-    public TabouSolver(Neighborhood neighborhood, Solver baseSolver, int maxIter, int dureeTabou) {
+    public TabouSolver(Neighborhood neighborhood, Solver baseSolver, long maxIter, int dureeTabou, int parallelism) {
         this.neighborhood = (Nowicki) neighborhood;
         this.baseSolver = baseSolver;
         this.maxIter = maxIter;
         this.dureeTabou = dureeTabou;
+        this.parallelism = parallelism;
     }
 
     @Override
     public Optional<Schedule> solve(Instance instance, long deadline) {
+        if(parallelism <= 1) {
+            return search(instance, deadline, null);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return search(instance, deadline, pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Runs the tabu search, evaluating the neighbors in the given pool if it is not null. */
+    private Optional<Schedule> search(Instance instance, long deadline, ForkJoinPool pool) {
 
         Optional<Schedule> schedule = baseSolver.solve(instance,deadline);
-        Optional<Schedule> solution = schedule;
-        //Nowicki.Swap bestSwap = null;
-        Nowicki.PairTask bestPairTasks = null;
-        Optional<Schedule> optimal = schedule;
+        if(schedule.isEmpty()) return schedule;
+        Schedule optimal = schedule.get();
+        if(sharedBest != null) publish(sharedBest, optimal);
         int currentIter = 0;
+        // stops at the deadline, after maxIter iterations, or when the best known result is matched
+        SearchBudget budget = SearchBudget.until(deadline).withMaxIterations(maxIter).withTargetOf(instance);
+
+        // current solution, modified in place by the selected swaps
+        ResourceOrder current = new ResourceOrder(optimal);
+        // heads, tails and critical blocks of the current solution, to score the neighbors without decoding them
+        SwapEvaluator evaluator = new SwapEvaluator(instance);
+        evaluator.reset(current);
+        // work arrays of each thread of the pool
+        ThreadLocal<SwapEvaluator.Scratch> scratches = ThreadLocal.withInitial(evaluator::newScratch);
 
-        //Deque<Nowicki.Swap> listSwapTabou = new ArrayDeque<>();
-        Deque<Nowicki.PairTask> listTasksTabou = new ArrayDeque<>();
+        // for each possible swap, iteration until which it is forbidden
+        TabuMemory tabu = new TabuMemory(instance);
 
         do {
-            ResourceOrder initial = new ResourceOrder(schedule.get());
-            //List<ResourceOrder> neighborsList = neighborhood.generateNeighbors(initial);
-            List<Nowicki.Pair> neighborsList = neighborhood.generateNeighborsPairTasks(initial);
+            List<Nowicki.Swap> neighborsList = neighborhood.allSwaps(evaluator.criticalBlocks());
             int min = Integer.MAX_VALUE;
+            Nowicki.Swap bestSwap = null;
 
-            for (Nowicki.Pair temp: neighborsList){
-                Optional<Schedule> tmpS = temp.resourceOrder.toSchedule();
-                if(tmpS.isPresent() && tmpS.get().isValid()){ // vérifie la validité du ressource order
-                    if(tmpS.get().makespan()<min  && !listTasksTabou.contains(temp.pairTask)) {
-                        solution = tmpS;
-                        min = tmpS.get().makespan();
-                        bestPairTasks = temp.pairTask;
-                    }
-                    /*else if(tmpS.get().makespan()<optimal.get().makespan()){ //version 3
-                        solution = tmpS;
-                        min = tmpS.get().makespan();
-                        bestPairTasks = temp.pairTask;
-                    }*/
-                }
+            // on large neighborhoods, the makespans of the neighbors that may be selected are computed in parallel
+            int[] makespans = null;
+            if(pool != null && neighborsList.size() >= MIN_PARALLEL_NEIGHBORS) {
+                makespans = evaluateCandidates(pool, evaluator, scratches, neighborsList, tabu, current, currentIter,
+                        optimal.makespan());
             }
 
-            if(bestPairTasks != null) {
-                listTasksTabou.offerFirst(bestPairTasks.inverseTask());
-                if (listTasksTabou.size()==dureeTabou) listTasksTabou.pollLast();
+            for (int i = 0; i < neighborsList.size(); i++){
+                Nowicki.Swap temp = neighborsList.get(i);
+                int makespan;
+                if(makespans != null) {
+                    makespan = makespans[i];
+                } else {
+                    // the lower bound is cheap, only compute the exact makespan of neighbors that may be selected
+                    if(evaluator.lowerBound(temp) >= min) continue;
+                    makespan = evaluator.makespan(temp);
+                }
+                if(makespan >= min) continue;
+                // aspiration: a tabu move is accepted if it improves the best solution found so far
+                if(!isTabu(tabu, current, temp, currentIter) || makespan < optimal.makespan()) {
+                    min = makespan;
+                    bestSwap = temp;
+                }
             }
 
-            if (solution.get().makespan()<optimal.get().makespan()){
-                optimal = solution;
+            if(bestSwap != null) {
+                // swapping the two tasks back is forbidden for the next iterations
+                tabu.forbid(bestSwap.machine,
+                        current.getJobOfMachine(bestSwap.machine, bestSwap.t2),
+                        current.getJobOfMachine(bestSwap.machine, bestSwap.t1),
+                        currentIter + dureeTabou);
 
+                bestSwap.apply(current);
+                evaluator.reset(current);
+                // a schedule is only built for a new best solution
+                if(evaluator.makespan() < optimal.makespan()) {
+                    optimal = evaluator.schedule();
+                    if(sharedBest != null) publish(sharedBest, optimal);
+                }
             }
-             schedule = solution;
             currentIter++;
-        }while(currentIter < maxIter || System.currentTimeMillis() < deadline);
+        }while(budget.next(bestMakespan(optimal)));
+
+        lastIterations = budget.iterations();
+        return Optional.of(optimal);
+    }
+
+    /** Best makespan known by this search, including the ones published by other searches sharing the best solution. */
+    private int bestMakespan(Schedule optimal) {
+        Schedule shared = sharedBest == null ? null : sharedBest.get();
+        return shared == null ? optimal.makespan() : Math.min(optimal.makespan(), shared.makespan());
+    }
+
+    /** True if the swap is forbidden at the given iteration. */
+    private static boolean isTabu(TabuMemory tabu, ResourceOrder current, Nowicki.Swap swap, int iteration) {
+        return tabu.isTabu(swap.machine,
+                current.getJobOfMachine(swap.machine, swap.t1),
+                current.getJobOfMachine(swap.machine, swap.t2),
+                iteration);
+    }
+
+    /** Computes the exact makespan of the swaps that may be selected by the iteration, the other ones being given
+     * Integer.MAX_VALUE.
+     *
+     * A first estimate is computed sequentially: the exact makespan of the non-tabu swap with the smallest lower
+     * bound or, if all swaps are tabu, the best makespan minus one since only an improving swap can be selected.
+     * Swaps whose lower bound exceeds this estimate cannot be selected. Swaps whose lower bound is equal to it are
+     * kept, so that ties are broken as in the sequential evaluation. The remaining swaps are evaluated on the
+     * threads of the pool if there are enough of them to pay for the dispatch.
+     */
+    private static int[] evaluateCandidates(ForkJoinPool pool, SwapEvaluator evaluator,
+                                            ThreadLocal<SwapEvaluator.Scratch> scratches, List<Nowicki.Swap> swaps,
+                                            TabuMemory tabu, ResourceOrder current, int iteration, int best) {
+        int[] makespans = new int[swaps.size()];
+        int first = -1;
+        for(int i = 0 ; i < swaps.size() ; i++) {
+            // the lower bounds are kept in the result until they are replaced by the exact makespans
+            makespans[i] = evaluator.lowerBound(swaps.get(i));
+            if(!isTabu(tabu, current, swaps.get(i), iteration) && (first < 0 || makespans[i] < makespans[first])) {
+                first = i;
+            }
+        }
+        int estimate = first < 0 ? best - 1 : evaluator.makespan(swaps.get(first));
+
+        int[] candidates = new int[swaps.size()];
+        int numCandidates = 0;
+        for(int i = 0 ; i < swaps.size() ; i++) {
+            if(i != first && makespans[i] <= estimate) {
+                candidates[numCandidates++] = i;
+            } else {
+                makespans[i] = Integer.MAX_VALUE;
+            }
+        }
+        if(first >= 0) makespans[first] = estimate;
+
+        if(numCandidates < MIN_PARALLEL_NEIGHBORS) {
+            for(int k = 0 ; k < numCandidates ; k++) {
+                makespans[candidates[k]] = evaluator.makespan(swaps.get(candidates[k]));
+            }
+            return makespans;
+        }
+        final int n = numCandidates;
+        try {
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(k ->
+                    makespans[candidates[k]] = evaluator.makespan(swaps.get(candidates[k]), scratches.get()))
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return makespans;
+    }
 
-        return optimal;
+    /** Replaces the schedule in the reference if the candidate has a strictly smaller makespan. */
+    static void publish(AtomicReference<Schedule> best, Schedule candidate) {
+        best.accumulateAndGet(candidate, (current, c) -> current == null || c.makespan() < current.makespan() ? c : current);
     }
 
 }
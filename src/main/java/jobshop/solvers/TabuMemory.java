@@ -0,0 +1,34 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+
+/** Short-term memory of a tabu search on swaps of two tasks on a machine.
+ *
+ * A move is identified by its machine and the jobs of the two tasks in their order on the machine before the move.
+ * For each such move, the memory stores the iteration until which the move is forbidden, so that checking and
+ * updating the tabu status are constant time operations without any allocation.
+ */
+final class TabuMemory {
+
+    private final int numJobs;
+
+    // tabuUntil[(machine * numJobs + firstJob) * numJobs + secondJob] is the first iteration at which the move
+    // is allowed again
+    private final int[] tabuUntil;
+
+    /** Creates an empty memory, where no move is tabu. */
+    TabuMemory(Instance instance) {
+        this.numJobs = instance.numJobs;
+        this.tabuUntil = new int[instance.numMachines * numJobs * numJobs];
+    }
+
+    /** Returns true if swapping firstJob (currently first) and secondJob on the machine is tabu at the iteration. */
+    boolean isTabu(int machine, int firstJob, int secondJob, int iteration) {
+        return tabuUntil[(machine * numJobs + firstJob) * numJobs + secondJob] > iteration;
+    }
+
+    /** Forbids swapping firstJob (then first) and secondJob on the machine until the given iteration (excluded). */
+    void forbid(int machine, int firstJob, int secondJob, int untilIteration) {
+        tabuUntil[(machine * numJobs + firstJob) * numJobs + secondJob] = untilIteration;
+    }
+}
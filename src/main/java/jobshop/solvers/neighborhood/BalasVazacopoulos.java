@@ -0,0 +1,25 @@
+package jobshop.solvers.neighborhood;
+
+import java.util.List;
+
+/**
+ * Implementation of the N6 neighborhood of Balas and Vazacopoulos (1998), restricted to the block ends.
+ * <p>
+ * For each block of the critical path, each task of the block is moved to the first position of the block
+ * (before its first task) or to the last position of the block (after its last task).
+ * Moves that may create a cycle are discarded, see <code>InsertionNeighborhood</code>.
+ */
+public class BalasVazacopoulos extends InsertionNeighborhood {
+
+    @Override
+    protected void candidates(int machine, int first, int last, List<Insertion> moves) {
+        for(int i = first + 1 ; i <= last ; i++) {
+            moves.add(new Insertion(machine, i, first));
+        }
+        for(int i = first ; i < last ; i++) {
+            // moving the first task after the second one is the same as moving the second task before the first one
+            if(i == first && last == first + 1) continue;
+            moves.add(new Insertion(machine, i, last));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.Instance;
+import jobshop.encodings.Decoder;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * Critical path and critical blocks of a decoded ResourceOrder.
+ * <p>
+ * The critical path is rebuilt backward from the task that ends last: the predecessor of a task on the path is the
+ * previous task of its job if it ends exactly when the task starts, and its predecessor on the machine otherwise.
+ * Both are read from the decoder, so the extraction takes a time linear in the length of the path.
+ * <p>
+ * A block is a maximal sequence of at least two consecutive tasks of the critical path that run on the same
+ * machine. Blocks are stored as (machine, first position, last position) triples, positions being indices in the
+ * resource order of the machine. They do not depend on a particular neighborhood.
+ * <p>
+ * Tasks are identified by <code>job * numTasks + task</code>. All arrays are reused from one extraction to the next.
+ */
+public final class CriticalBlocks {
+
+    // tasks of the critical path, in order
+    private int[] path = new int[0];
+    private int pathLength = 0;
+
+    // blocks of the critical path, stored as consecutive (machine, first position, last position) triples
+    private int[] blocks = new int[0];
+    private int numBlocks = 0;
+
+    /** Creates an empty set of blocks. Its arrays will grow to the size of the largest instance. */
+    public CriticalBlocks() {}
+
+    /** Extracts the critical path and the blocks of the resource order, which must just have been decoded.
+     *
+     * @param decoder Decoder whose last decoded resource order is <code>order</code>.
+     * @param order Resource order from which the positions of the tasks in the blocks are taken.
+     */
+    public void extract(Decoder decoder, ResourceOrder order) {
+        final Instance instance = order.instance;
+        final int numTasks = instance.numTasks;
+        final int size = decoder.size();
+        if(path.length < size) {
+            path = new int[size];
+            // a block contains at least two tasks
+            blocks = new int[3 * (size / 2 + 1)];
+        }
+
+        // the path starts with the first job whose last task ends at the makespan
+        int last = -1;
+        for(int job = 0 ; job < instance.numJobs && last < 0 ; job++) {
+            int t = job * numTasks + numTasks - 1;
+            if(end(decoder, instance, t) == decoder.makespan()) last = t;
+        }
+
+        // the path is first written backward from the end of the array
+        int first = size;
+        int t = last;
+        path[--first] = t;
+        while(decoder.head(t) != 0) {
+            int start = decoder.head(t);
+            if(t % numTasks != 0 && end(decoder, instance, t - 1) == start) {
+                t = t - 1;
+            } else {
+                t = decoder.machinePred(t);
+                assert t >= 0 && end(decoder, instance, t) == start;
+            }
+            path[--first] = t;
+        }
+        pathLength = size - first;
+        System.arraycopy(path, first, path, 0, pathLength);
+
+        // two consecutive tasks of the path are on the same machine iff they are linked by a machine arc
+        numBlocks = 0;
+        int i = 0;
+        while(i < pathLength - 1) {
+            int j = i;
+            while(j < pathLength - 1 && decoder.machinePred(path[j+1]) == path[j]) j++;
+            if(j > i) {
+                int task = path[i];
+                blocks[3 * numBlocks] = instance.machine(task);
+                blocks[3 * numBlocks + 1] = order.getPosition(task / numTasks, task % numTasks);
+                blocks[3 * numBlocks + 2] = order.getPosition(path[j] / numTasks, path[j] % numTasks);
+                numBlocks++;
+            }
+            i = j + 1;
+        }
+    }
+
+    private static int end(Decoder decoder, Instance instance, int t) {
+        return decoder.head(t) + instance.duration(t);
+    }
+
+    /** Number of tasks on the critical path. */
+    public int pathLength() {
+        return pathLength;
+    }
+
+    /** Identifier of the i-th task of the critical path. */
+    public int pathTask(int i) {
+        return path[i];
+    }
+
+    /** Number of blocks on the critical path. */
+    public int numBlocks() {
+        return numBlocks;
+    }
+
+    /** Machine of the b-th block. */
+    public int machine(int b) {
+        return blocks[3 * b];
+    }
+
+    /** Position, in the resource order of its machine, of the first task of the b-th block. */
+    public int firstPosition(int b) {
+        return blocks[3 * b + 1];
+    }
+
+    /** Position, in the resource order of its machine, of the last task of the b-th block. */
+    public int lastPosition(int b) {
+        return blocks[3 * b + 2];
+    }
+}
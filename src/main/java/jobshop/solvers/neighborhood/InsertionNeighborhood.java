@@ -0,0 +1,118 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base class of the neighborhoods that move a task of a critical block to another position of its block.
+ * <p>
+ * Subclasses choose the candidate moves of each block. Before being generated, each move is checked with the
+ * sufficient conditions of Balas and Vazacopoulos (1998), computed from the heads and tails of the current order:
+ *  - moving a task u after a task v (forward) cannot create a cycle if the job successor of u has a tail (duration
+ *    included) no longer than the one of v,
+ *  - moving a task v before a task u (backward) cannot create a cycle if the job predecessor of v starts before
+ *    the end of u.
+ * Indeed, a cycle would require a path from the job successor of u to v, or from u to the job predecessor of v.
+ * Moves that fail the test are discarded, so that all generated neighbors are acyclic.
+ */
+public abstract class InsertionNeighborhood extends Neighborhood {
+
+    /**
+     * Moves the task at position <code>from</code> of a machine to position <code>to</code>, shifting the tasks
+     * in between.
+     */
+    public static class Insertion implements Move {
+        /** machine on which the task is moved */
+        public final int machine;
+        /** current position of the task */
+        public final int from;
+        /** position of the task after the move */
+        public final int to;
+
+        public Insertion(int machine, int from, int to) {
+            this.machine = machine;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void apply(ResourceOrder order) {
+            order.moveTask(machine, from, to);
+        }
+
+        @Override
+        public void undo(ResourceOrder order) {
+            order.moveTask(machine, to, from);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Insertion that = (Insertion) o;
+            return machine == that.machine && from == that.from && to == that.to;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(machine, from, to);
+        }
+    }
+
+    /** Adds to the list the candidate moves of a block (machine, first position, last position). */
+    protected abstract void candidates(int machine, int first, int last, List<Insertion> moves);
+
+    @Override
+    public List<Insertion> moves(ResourceOrder current) {
+        return allInsertions(current);
+    }
+
+    /** Generates all moves of the given ResourceOrder that pass the feasibility test. */
+    public List<Insertion> allInsertions(ResourceOrder current) {
+        SwapEvaluator evaluator = new SwapEvaluator(current.instance);
+        if(!evaluator.reset(current)) {
+            throw new RuntimeException("The resource order does not represent a valid solution");
+        }
+        return allInsertions(current, evaluator);
+    }
+
+    /** Generates all moves that pass the feasibility test, the evaluator must have been loaded with the order. */
+    public List<Insertion> allInsertions(ResourceOrder current, SwapEvaluator evaluator) {
+        CriticalBlocks blocks = evaluator.criticalBlocks();
+        List<Insertion> candidates = new ArrayList<>();
+        for(int b = 0 ; b < blocks.numBlocks() ; b++) {
+            candidates(blocks.machine(b), blocks.firstPosition(b), blocks.lastPosition(b), candidates);
+        }
+        List<Insertion> moves = new ArrayList<>();
+        for(Insertion move : candidates) {
+            if(isFeasible(current, evaluator, move)) moves.add(move);
+        }
+        return moves;
+    }
+
+    /** Sufficient condition for the move to give an acyclic order (see the class documentation). */
+    static boolean isFeasible(ResourceOrder order, SwapEvaluator evaluator, Insertion move) {
+        if(move.from == move.to) return false;
+        // swapping two adjacent tasks never creates a cycle
+        if(Math.abs(move.from - move.to) == 1) return true;
+        Instance instance = order.instance;
+        int moved = order.getTaskIdOfMachine(move.machine, move.from);
+        int target = order.getTaskIdOfMachine(move.machine, move.to);
+
+        if(move.from < move.to) {
+            // forward: no path from the job successor of the moved task to the target
+            if(moved % instance.numTasks == instance.numTasks - 1) return true;
+            int js = moved + 1;
+            return instance.duration(js) + evaluator.tail(js) <= instance.duration(target) + evaluator.tail(target);
+        } else {
+            // backward: no path from the target to the job predecessor of the moved task
+            if(moved % instance.numTasks == 0) return true;
+            int jp = moved - 1;
+            return evaluator.head(jp) < evaluator.head(target) + instance.duration(target);
+        }
+    }
+}
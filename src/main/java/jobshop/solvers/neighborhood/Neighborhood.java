@@ -2,14 +2,48 @@ package jobshop.solvers.neighborhood;
 
 import jobshop.encodings.ResourceOrder;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /** For a particular solution in the ResourceOrder encoding, a neighborhood allows the generation of its neighbors:
  * a set of closely related solutions.
+ *
+ * Neighbors are described by moves, that are applied in place on the current solution and undone once it has
+ * been evaluated. Only the neighbor that is finally selected needs to be copied.
  */
 public abstract class Neighborhood {
 
-    /** Generates all neighbors for the current solution.  */
-    public abstract List<ResourceOrder> generateNeighbors(ResourceOrder current);
+    /** A modification of a ResourceOrder, that transforms it into one of its neighbors. */
+    public interface Move {
+
+        /** Transforms the order into the neighbor, in place. */
+        void apply(ResourceOrder order);
+
+        /** Reverts <code>apply</code>: the order must be the result of applying this move. */
+        void undo(ResourceOrder order);
+
+        /** Creates a new ResourceOrder that is the result of applying the move on the original one, which is not
+         * modified. */
+        default ResourceOrder generateFrom(ResourceOrder original) {
+            ResourceOrder order = original.copy();
+            apply(order);
+            return order;
+        }
+    }
+
+    /** Generates the moves to all neighbors of the current solution, which is not modified. */
+    public abstract List<? extends Move> moves(ResourceOrder current);
+
+    /** Generates all neighbors for the current solution, each one as a copy of the current solution.
+     * Prefer <code>moves</code> when the neighbors are only evaluated.
+     */
+    public List<ResourceOrder> generateNeighbors(ResourceOrder current) {
+        List<? extends Move> moves = moves(current);
+        List<ResourceOrder> neighbors = new ArrayList<>(moves.size());
+        for(Move move : moves) {
+            neighbors.add(move.generateFrom(current));
+        }
+        return neighbors;
+    }
 
 }
@@ -1,13 +1,11 @@
 package jobshop.solvers.neighborhood;
 
+import jobshop.encodings.Decoder;
 import jobshop.encodings.ResourceOrder;
-import jobshop.encodings.Schedule;
-import jobshop.encodings.Task;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 
 /**
@@ -32,44 +30,6 @@ public class Nowicki extends Neighborhood {
      * The block with : machine = 1, firstTask= 0 and lastTask = 1
      * Represent the task sequence : [(0,2) (2,1)]
      */
-
-    public class PairTask {
-        final public Task firstTask;
-        final public Task secondTask;
-
-        public PairTask(Task firstTask, Task secondTask) {
-            this.firstTask = firstTask;
-            this.secondTask = secondTask;
-        }
-
-        public PairTask inverseTask(){
-            return new PairTask(secondTask, firstTask);
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            PairTask pairTask1 = (PairTask) o;
-            return firstTask == pairTask1.firstTask && secondTask == pairTask1.secondTask;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(firstTask, secondTask);
-        }
-    }
-
-    public class Pair {
-        public ResourceOrder resourceOrder;
-        public PairTask pairTask;
-
-        public Pair(ResourceOrder order, PairTask pairTask) {
-            this.resourceOrder = order;
-            this.pairTask = pairTask;
-        }
-    }
-
     public static class Block {
         /**
          * machine on which the block is identified
@@ -109,7 +69,7 @@ public class Nowicki extends Neighborhood {
      * machine 1 : (2,1) (0,2) (1,1)
      * machine 2 : ...
      */
-    public static class Swap {
+    public static class Swap implements Move {
         /**
          * machine on which to perform the swap
          */
@@ -129,7 +89,7 @@ public class Nowicki extends Neighborhood {
         /**
          * Creates a new swap of two tasks.
          */
-        Swap(int machine, int t1, int t2) {
+        public Swap(int machine, int t1, int t2) {
             this.machine = machine;
             if (t1 < t2) {
                 this.t1 = t1;
@@ -149,14 +109,14 @@ public class Nowicki extends Neighborhood {
 
 
 
-        /**
-         * Creates a new ResourceOrder order that is the result of performing the swap in the original ResourceOrder.
-         * The original ResourceOrder MUST NOT be modified by this operation.
-         */
-        public ResourceOrder generateFrom(ResourceOrder original) {
-            ResourceOrder order = original.copy();
+        @Override
+        public void apply(ResourceOrder order) {
+            order.swapTasks(machine, t1, t2);
+        }
+
+        @Override
+        public void undo(ResourceOrder order) {
             order.swapTasks(machine, t1, t2);
-            return order;
         }
 
         @Override
@@ -175,21 +135,8 @@ public class Nowicki extends Neighborhood {
 
 
     @Override
-    public List<ResourceOrder> generateNeighbors(ResourceOrder current) {
-        // convert the list of swaps into a list of neighbors (function programming FTW)
-        return allSwaps(current).stream().map(swap -> swap.generateFrom(current)).collect(Collectors.toList());
-
-    }
-
-    public List<Pair> generateNeighborsPairTasks(ResourceOrder current) {
-        // convert the list of swaps into a list of neighbors (function programming FTW)
-        return allSwaps(current).stream().map(swap -> new Pair(
-                swap.generateFrom(current),
-                new PairTask(
-                        current.getTaskOfMachine(swap.machine, swap.t1),
-                        current.getTaskOfMachine(swap.machine, swap.t2)
-                )
-        )).collect(Collectors.toList());
+    public List<Swap> moves(ResourceOrder current) {
+        return allSwaps(current);
     }
 
     /**
@@ -197,11 +144,18 @@ public class Nowicki extends Neighborhood {
      * This method can be used if one wants to access the inner fields of a neighbors.
      */
     public List<Swap> allSwaps(ResourceOrder current) {
-        List<Swap> neighbors = new ArrayList<>();
+        return allSwaps(criticalBlocksOf(current));
+    }
+
+    /**
+     * Generates all swaps of the blocks of a critical path, typically the ones computed by a SwapEvaluator.
+     */
+    public List<Swap> allSwaps(CriticalBlocks blocks) {
+        List<Swap> neighbors = new ArrayList<>(2 * blocks.numBlocks());
         // iterate over all blocks of the critical path
-        for (var block : blocksOfCriticalPath(current)) {
-            // for this block, compute all neighbors and add them to the list of neighbors
-            neighbors.addAll(neighbors(block));
+        for (int b = 0; b < blocks.numBlocks(); b++) {
+            // for this block, add all its swaps to the list of neighbors
+            addSwaps(blocks.machine(b), blocks.firstPosition(b), blocks.lastPosition(b), neighbors);
         }
         return neighbors;
     }
@@ -210,47 +164,42 @@ public class Nowicki extends Neighborhood {
      * Returns a list of all the blocks of the critical path.
      */
     List<Block> blocksOfCriticalPath(ResourceOrder order) {
-
-        Schedule schedule = order.toSchedule().get();
-        List<Task> critical_path = schedule.criticalPath();
+        CriticalBlocks blocks = criticalBlocksOf(order);
         List<Block> result = new ArrayList<>();
-        Task one, two;
-        boolean ongoing = false;
-        int start = 0, end = 0;
-
-        for (int i = 0; i < critical_path.size() - 1; i++) {
-            one = critical_path.get(i);
-            two = critical_path.get(i + 1);
-
-            if (schedule.instance.machine(one) == schedule.instance.machine(two)) {
-                if (!ongoing) { // début d'un block
-                    ongoing = true;
-                    start = order.getIndexOrder(schedule.instance.machine(one), one);
-                }
-            } else { // Cas où les deux tâches i et i+1 ne sont pas sur la même machine
-                if (ongoing) {  //Cas où on avait déjà un block en cours
-                    end = order.getIndexOrder(schedule.instance.machine(one), one);
-                    ;
-                    ongoing = false;
-                    result.add(new Block(schedule.instance.machine(one), start, end));
-                }
-            }
+        for (int b = 0; b < blocks.numBlocks(); b++) {
+            result.add(new Block(blocks.machine(b), blocks.firstPosition(b), blocks.lastPosition(b)));
         }
         return result;
     }
 
+    // decodes the resource order and extracts its critical blocks
+    private static CriticalBlocks criticalBlocksOf(ResourceOrder order) {
+        Decoder decoder = Decoder.forCurrentThread();
+        if (!decoder.decode(order)) {
+            throw new RuntimeException("The resource order does not represent a valid solution");
+        }
+        CriticalBlocks blocks = new CriticalBlocks();
+        blocks.extract(decoder, order);
+        return blocks;
+    }
+
     /**
      * For a given block, return the possible swaps for the Nowicki and Smutnicki neighborhood
      */
     List<Swap> neighbors(Block block) {
-        List<Swap> result = new ArrayList<>();
-        if ((block.lastTask - block.firstTask) == 1) {
-            result.add(new Swap(block.machine, block.lastTask, block.firstTask));
+        List<Swap> result = new ArrayList<>(2);
+        addSwaps(block.machine, block.firstTask, block.lastTask, result);
+        return result;
+    }
+
+    // adds the swaps of the block (machine, firstTask, lastTask) to the list
+    private static void addSwaps(int machine, int firstTask, int lastTask, List<Swap> swaps) {
+        if ((lastTask - firstTask) == 1) {
+            swaps.add(new Swap(machine, lastTask, firstTask));
         } else {
-            result.add(new Swap(block.machine, block.firstTask + 1, block.firstTask));
-            result.add(new Swap(block.machine, block.lastTask, block.lastTask - 1));
+            swaps.add(new Swap(machine, firstTask + 1, firstTask));
+            swaps.add(new Swap(machine, lastTask, lastTask - 1));
         }
-        return result;
     }
 
 }
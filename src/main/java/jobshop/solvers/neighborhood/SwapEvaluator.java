@@ -0,0 +1,299 @@
+package jobshop.solvers.neighborhood;
+
+import jobshop.Instance;
+import jobshop.encodings.Decoder;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.encodings.Task;
+
+import java.util.Arrays;
+
+/**
+ * Incremental evaluation of the swaps of the Nowicki and Smutnicki neighborhood.
+ * <p>
+ * The evaluator is loaded with a ResourceOrder (see <code>reset</code>) and keeps, for each task of the disjunctive
+ * graph, its head (earliest start time) and its tail (length of the longest path from the end of the task to the
+ * end of the schedule). A swap of two adjacent tasks of a critical block can then be scored without decoding the
+ * neighbor from scratch:
+ *  - <code>lowerBound</code> gives in constant time the estimate of Taillard (1994), which is a lower bound of the
+ *    makespan of the neighbor,
+ *  - <code>makespan</code> gives the exact makespan of the neighbor by recomputing the heads of the tasks that are
+ *    affected by the swap only.
+ * The insertions of <code>InsertionNeighborhood</code> are scored with <code>estimate</code>, from the same heads
+ * and tails.
+ * <p>
+ * Tasks are identified by <code>job * numTasks + task</code>.
+ */
+public final class SwapEvaluator {
+
+    /** Instance of the resource orders that are evaluated. */
+    public final Instance instance;
+
+    // total number of tasks in the instance
+    private final int size;
+
+    // duration of each task
+    private final int[] duration;
+
+    // heads, machine predecessors and topological order of the current resource order
+    private final Decoder decoder = new Decoder();
+
+    // critical path and blocks of the current resource order
+    private final CriticalBlocks blocks = new CriticalBlocks();
+
+    // tails of each task in the current resource order
+    private final int[] tail;
+
+    // work arrays used by makespan(swap)
+    private final Scratch scratch;
+
+    // tasks and heads of the moved segment, used by estimate(insertion)
+    private final int[] segment;
+    private final int[] segmentHead;
+
+    // resource order that was last loaded
+    private ResourceOrder current;
+
+    /** Creates a new evaluator for the given instance, with all work arrays allocated once and for all. */
+    public SwapEvaluator(Instance instance) {
+        this.instance = instance;
+        this.size = instance.numJobs * instance.numTasks;
+        this.duration = new int[size];
+        for(int t = 0 ; t < size ; t++) {
+            duration[t] = instance.duration(t);
+        }
+        this.tail = new int[size];
+        this.scratch = newScratch();
+        this.segment = new int[instance.numJobs];
+        this.segmentHead = new int[instance.numJobs];
+    }
+
+    private int id(int job, int task) {
+        return job * instance.numTasks + task;
+    }
+
+    private int id(Task t) {
+        return id(t.job, t.task);
+    }
+
+    // predecessor of the task on its job, -1 if it is the first task of the job
+    private int jobPred(int t) {
+        return t % instance.numTasks == 0 ? -1 : t - 1;
+    }
+
+    // successor of the task on its job, -1 if it is the last task of the job
+    private int jobSucc(int t) {
+        return t % instance.numTasks == instance.numTasks - 1 ? -1 : t + 1;
+    }
+
+    // end time of the task in the current resource order, 0 for a missing task
+    private int end(int t) {
+        return t < 0 ? 0 : decoder.head(t) + duration[t];
+    }
+
+    // duration plus tail of the task in the current resource order, 0 for a missing task
+    private int durationAndTail(int t) {
+        return t < 0 ? 0 : duration[t] + tail[t];
+    }
+
+    /** Work arrays for the exact evaluation of a swap.
+     * A scratch must only be used by one thread at a time, but several threads may evaluate swaps of the same
+     * evaluator concurrently, each with its own scratch.
+     */
+    public static final class Scratch {
+        // heads recomputed when evaluating a swap, only meaningful for the tasks whose stamp is the current one
+        private final int[] newHead;
+        private final int[] stamp;
+        private int currentStamp = 0;
+
+        private Scratch(int size) {
+            this.newHead = new int[size];
+            this.stamp = new int[size];
+        }
+    }
+
+    /** Creates new work arrays to evaluate swaps from another thread. */
+    public Scratch newScratch() {
+        return new Scratch(size);
+    }
+
+    // end time of the task in the neighbor being evaluated
+    private int newEnd(int t, Scratch sc) {
+        if(t < 0) return 0;
+        return (sc.stamp[t] == sc.currentStamp ? sc.newHead[t] : decoder.head(t)) + duration[t];
+    }
+
+    /** Loads a complete resource order and computes the heads and tails of all its tasks.
+     *
+     * @return False if the resource order contains a cycle, in which case the evaluator should not be used until
+     *         another resource order is loaded.
+     */
+    public boolean reset(ResourceOrder order) {
+        this.current = order;
+        // heads are computed by a topological traversal of the disjunctive graph
+        if(!decoder.decode(order)) {
+            return false;
+        }
+
+        // tails are computed by traversing the same order backwards
+        for(int i = size - 1 ; i >= 0 ; i--) {
+            int t = decoder.topologicalOrder(i);
+            tail[t] = Math.max(durationAndTail(jobSucc(t)), durationAndTail(decoder.machineSucc(t)));
+        }
+        blocks.extract(decoder, order);
+        return true;
+    }
+
+    /** Critical path and blocks of the resource order that was last loaded. */
+    public CriticalBlocks criticalBlocks() {
+        return blocks;
+    }
+
+    /** Makespan of the resource order that was last loaded. */
+    public int makespan() {
+        return decoder.makespan();
+    }
+
+    /** Start time of the given task in the resource order that was last loaded. */
+    public int head(Task t) {
+        return decoder.head(id(t));
+    }
+
+    /** Length of the longest path from the end of the given task to the end of the schedule. */
+    public int tail(Task t) {
+        return tail[id(t)];
+    }
+
+    /** Schedule of the resource order that was last loaded, built from the heads without decoding it again.
+     * The local searches return it without validating it, since it is decoded: with assertions enabled, it is
+     * still checked against the resource order, in O(tasks).
+     */
+    public Schedule schedule() {
+        Schedule schedule = decoder.toSchedule();
+        assert schedule.isDecoded() && schedule.isValid(current) : "Invalid schedule built by the evaluator";
+        return schedule;
+    }
+
+    /** Start time of the task with the given identifier in the resource order that was last loaded. */
+    public int head(int t) {
+        return decoder.head(t);
+    }
+
+    /** Length of the longest path from the end of the task with the given identifier to the end of the schedule. */
+    public int tail(int t) {
+        return tail[t];
+    }
+
+    /** Lower bound of the makespan of the neighbor obtained by applying the swap (Taillard's estimate).
+     *
+     * The bound is the length of the longest path going through one of the two swapped tasks, computed from the
+     * heads and tails of the current resource order. It is exact whenever the new critical path goes through
+     * one of these tasks, which makes it a good approximation to rank the neighbors.
+     */
+    public int lowerBound(Nowicki.Swap swap) {
+        assert swap.t2 == swap.t1 + 1 : "Only adjacent swaps can be evaluated";
+        int u = current.getTaskIdOfMachine(swap.machine, swap.t1);
+        int v = current.getTaskIdOfMachine(swap.machine, swap.t2);
+
+        int headV = Math.max(end(jobPred(v)), end(decoder.machinePred(u)));
+        int headU = Math.max(end(jobPred(u)), headV + duration[v]);
+        int tailU = Math.max(durationAndTail(jobSucc(u)), durationAndTail(decoder.machineSucc(v)));
+        int tailV = Math.max(durationAndTail(jobSucc(v)), duration[u] + tailU);
+
+        return Math.max(headV + duration[v] + tailV, headU + duration[u] + tailU);
+    }
+
+    /** Exact makespan of the neighbor obtained by applying the swap.
+     *
+     * Only the heads of the tasks that come after the first swapped task in the topological order are considered,
+     * and only those that actually change are recomputed.
+     * The swap must exchange two adjacent tasks of a critical block, which guarantees that the neighbor has no cycle.
+     */
+    public int makespan(Nowicki.Swap swap) {
+        return makespan(swap, scratch);
+    }
+
+    /** Exact makespan of the neighbor obtained by applying the swap, using the given work arrays.
+     * This method does not modify the evaluator and can be called concurrently with different scratches.
+     */
+    public int makespan(Nowicki.Swap swap, Scratch sc) {
+        assert swap.t2 == swap.t1 + 1 : "Only adjacent swaps can be evaluated";
+        int u = current.getTaskIdOfMachine(swap.machine, swap.t1);
+        int v = current.getTaskIdOfMachine(swap.machine, swap.t2);
+        int succV = decoder.machineSucc(v);
+        final int[] stamp = sc.stamp;
+        final int[] newHead = sc.newHead;
+
+        if(sc.currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            sc.currentStamp = 0;
+        }
+        final int currentStamp = ++sc.currentStamp;
+        // v is now scheduled just before u on the machine
+        stamp[v] = currentStamp;
+        newHead[v] = Math.max(end(jobPred(v)), end(decoder.machinePred(u)));
+        stamp[u] = currentStamp;
+        newHead[u] = Math.max(end(jobPred(u)), newHead[v] + duration[v]);
+
+        // in the neighbor, the old topological order remains valid if v is moved just before u
+        for(int i = decoder.topologicalIndex(u) + 1 ; i < size ; i++) {
+            int t = decoder.topologicalOrder(i);
+            if(t == v) continue;
+            int jp = jobPred(t);
+            int mp = t == succV ? u : decoder.machinePred(t);
+            boolean predChanged = (jp >= 0 && stamp[jp] == currentStamp) || (mp >= 0 && stamp[mp] == currentStamp);
+            if(predChanged) {
+                int h = Math.max(newEnd(jp, sc), newEnd(mp, sc));
+                if(h != decoder.head(t)) {
+                    stamp[t] = currentStamp;
+                    newHead[t] = h;
+                }
+            }
+        }
+
+        int result = 0;
+        for(int job = 0 ; job < instance.numJobs ; job++) {
+            result = Math.max(result, newEnd(id(job, instance.numTasks - 1), sc));
+        }
+        return result;
+    }
+
+    /** Estimate of the makespan of the neighbor obtained by applying the insertion (Balas and Vazacopoulos, 1998).
+     *
+     * The heads and tails of the tasks between the old and new positions of the moved task are recomputed in their
+     * new machine order, from the heads and tails of their other neighbors in the current resource order. The
+     * estimate is the longest path going through one of these tasks. It is not a bound but ranks the neighbors well.
+     * This method uses work arrays of the evaluator and must not be called concurrently.
+     */
+    public int estimate(InsertionNeighborhood.Insertion move) {
+        int lo = Math.min(move.from, move.to);
+        int hi = Math.max(move.from, move.to);
+        int n = hi - lo + 1;
+        // tasks of positions lo..hi in their order after the move
+        if(move.from < move.to) {
+            for(int i = 1 ; i < n ; i++) segment[i - 1] = current.getTaskIdOfMachine(move.machine, lo + i);
+            segment[n - 1] = current.getTaskIdOfMachine(move.machine, move.from);
+        } else {
+            segment[0] = current.getTaskIdOfMachine(move.machine, move.from);
+            for(int i = 1 ; i < n ; i++) segment[i] = current.getTaskIdOfMachine(move.machine, lo + i - 1);
+        }
+        int prev = lo == 0 ? -1 : current.getTaskIdOfMachine(move.machine, lo - 1);
+        int next = hi == instance.numJobs - 1 ? -1 : current.getTaskIdOfMachine(move.machine, hi + 1);
+
+        int h = end(prev);
+        for(int i = 0 ; i < n ; i++) {
+            int t = segment[i];
+            segmentHead[i] = Math.max(end(jobPred(t)), h);
+            h = segmentHead[i] + duration[t];
+        }
+        int q = durationAndTail(next);
+        int result = 0;
+        for(int i = n - 1 ; i >= 0 ; i--) {
+            int t = segment[i];
+            int tailT = Math.max(durationAndTail(jobSucc(t)), q);
+            result = Math.max(result, segmentHead[i] + duration[t] + tailT);
+            q = duration[t] + tailT;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,25 @@
+package jobshop.solvers.neighborhood;
+
+import java.util.List;
+
+/**
+ * Implementation of the N7 neighborhood of Zhang et al. (2007).
+ * <p>
+ * It extends N6 (see <code>BalasVazacopoulos</code>) with the moves of the first and last tasks of a block to each
+ * interior position of the block.
+ * Moves that may create a cycle are discarded, see <code>InsertionNeighborhood</code>.
+ */
+public class Zhang extends BalasVazacopoulos {
+
+    @Override
+    protected void candidates(int machine, int first, int last, List<Insertion> moves) {
+        super.candidates(machine, first, last, moves);
+        // positions next to the original one are already covered by the adjacent moves of N6
+        for(int i = first + 2 ; i < last ; i++) {
+            moves.add(new Insertion(machine, first, i));
+        }
+        for(int i = first + 1 ; i < last - 1 ; i++) {
+            moves.add(new Insertion(machine, last, i));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package jobshop;
+
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Schedule;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class BinaryFormatTests {
+
+    private static void assertSameInstance(Instance expected, Instance actual) {
+        assert actual.name.equals(expected.name);
+        assert actual.numJobs == expected.numJobs;
+        assert actual.numTasks == expected.numTasks;
+        assert actual.numMachines == expected.numMachines;
+        for (int job = 0; job < expected.numJobs; job++) {
+            for (int task = 0; task < expected.numTasks; task++) {
+                assert actual.machine(job, task) == expected.machine(job, task) : "Wrong machine in " + expected.name;
+                assert actual.duration(job, task) == expected.duration(job, task) : "Wrong duration in " + expected.name;
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /** Every shipped instance and one of its solutions should survive a round trip through the binary format. */
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("binary");
+        try {
+            for (String instanceName : BestKnownResults.instances) {
+                Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+                Path instanceFile = dir.resolve(instanceName + ".bin");
+                BinaryFormat.writeInstance(instance, instanceFile);
+                Instance read = BinaryFormat.readInstance(instanceFile);
+                assertSameInstance(instance, read);
+
+                Schedule schedule = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get();
+                ResourceOrder order = new ResourceOrder(schedule);
+                Path solutionFile = dir.resolve(instanceName + ".sol");
+                BinaryFormat.writeSolution(order, schedule.makespan(), solutionFile);
+                BinaryFormat.Solution solution = BinaryFormat.readSolution(read, solutionFile);
+                assert solution.makespan == schedule.makespan();
+                assert solution.order.toSchedule().get().equals(schedule) : "Wrong solution for " + instanceName;
+            }
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    // number of binary copies in the cache directory
+    private static long numCopies(InstanceCache cache) throws IOException {
+        try (Stream<Path> files = Files.list(cache.directory)) {
+            return files.filter(p -> p.toString().endsWith(".bin")).count();
+        }
+    }
+
+    /** The cache should serve the same instance as the text file, and notice when the text file changes. */
+    @Test
+    public void testInstanceCache() throws IOException {
+        Path dir = Files.createTempDirectory("cache");
+        try {
+            InstanceCache cache = new InstanceCache(dir.resolve("cache"));
+            Path text = dir.resolve("ft06");
+            Files.copy(Paths.get("instances/ft06"), text);
+
+            Instance original = Instance.fromFile(text);
+            assertSameInstance(original, cache.load(text));
+            assert numCopies(cache) == 1 : "The binary copy should have been created";
+            assertSameInstance(original, cache.load(text));
+            assert numCopies(cache) == 1 : "The binary copy should have been reused";
+
+            Files.copy(Paths.get("instances/la01"), text, StandardCopyOption.REPLACE_EXISTING);
+            Instance modified = cache.load(text);
+            assert modified.numJobs == 10 && modified.numTasks == 5 : "A modified file should not be served from the cache";
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    /** On a cache hit, the text file should not be read: a file with the same size and last-modified time is
+     * served from its binary copy, even by another cache on the same directory. */
+    @Test
+    public void testInstanceCacheHit() throws IOException {
+        Path dir = Files.createTempDirectory("cache");
+        try {
+            Path text = dir.resolve("ft06");
+            Files.copy(Paths.get("instances/ft06"), text);
+            Instance original = Instance.fromFile(text);
+            new InstanceCache(dir.resolve("cache")).load(text);
+
+            // same size and last-modified time, but a content that cannot be parsed
+            FileTime modified = Files.getLastModifiedTime(text);
+            byte[] garbage = new byte[(int) Files.size(text)];
+            Arrays.fill(garbage, (byte) 'x');
+            Files.write(text, garbage);
+            Files.setLastModifiedTime(text, modified);
+
+            assertSameInstance(original, new InstanceCache(dir.resolve("cache")).load(text));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package jobshop;
+
+import jobshop.solvers.SearchBudget;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class LowerBoundsTests {
+
+    /** On aaa1, both jobs last 8 units, and the machine 2 cannot start before 4 and must process 2 + 4 units. */
+    @Test
+    public void testSmallInstance() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+        assert LowerBounds.jobBound(instance) == 8;
+        assert LowerBounds.machineBound(instance) == 10;
+        assert LowerBounds.jacksonBound(instance) == 10;
+        assert LowerBounds.of(instance) == 10;
+    }
+
+    /** Bounds should never exceed the best known results, and Jackson's bound dominates the machine bound. */
+    @Test
+    public void testBoundsBelowBestKnown() throws IOException {
+        int tight = 0;
+        for(String instanceName : BestKnownResults.instances) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            int best = BestKnownResults.of(instanceName);
+            int bound = LowerBounds.of(instance);
+            assert LowerBounds.jobBound(instance) <= bound;
+            assert LowerBounds.machineBound(instance) <= LowerBounds.jacksonBound(instance) : instanceName;
+            assert bound <= best : "Lower bound " + bound + " above the best known result " + best + " of " + instanceName;
+            if(bound == best) tight++;
+        }
+        // many of the la and ta instances are solved to optimality by their machine bound
+        assert tight > 0;
+    }
+
+    /** A search stops as soon as it reaches the lower bound, even if the instance has no best known result. */
+    @Test
+    public void testBudgetStopsAtLowerBound() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+        SearchBudget budget = SearchBudget.until(Long.MAX_VALUE).withLowerBoundOf(instance);
+        assert budget.next(12);
+        assert budget.next(11);
+        assert !budget.next(10);
+    }
+}
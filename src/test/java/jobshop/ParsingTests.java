@@ -3,6 +3,8 @@ package jobshop;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 public class ParsingTests {
@@ -36,5 +38,47 @@ public class ParsingTests {
 
     }
 
+    /** Test that comments, blank lines and Windows line endings are handled by the parser. */
+    @Test
+    public void testParsingComments() throws IOException {
+        Path path = Files.createTempFile("instance", "");
+        try {
+            Files.writeString(path, "# header comment\r\n\r\n2 2 # jobs and tasks\r\n0 3 1 2\r\n# job 1\r\n  1 4\t0 5 9\r\n");
+            Instance instance = Instance.fromFile(path);
+            assert instance.numJobs == 2 && instance.numTasks == 2;
+            assert instance.machine(0, 0) == 0 && instance.duration(0, 0) == 3;
+            assert instance.machine(0, 1) == 1 && instance.duration(0, 1) == 2;
+            assert instance.machine(1, 0) == 1 && instance.duration(1, 0) == 4;
+            assert instance.machine(1, 1) == 0 && instance.duration(1, 1) == 5;
+        } finally {
+            Files.delete(path);
+        }
+    }
 
+    /** Test that the data precomputed when loading an instance is consistent with its durations and machines. */
+    @Test
+    public void testDerivedData() throws IOException {
+        for (String instanceName : new String[] {"aaa1", "ft06", "la01", "ta01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            int[] machineLoads = new int[instance.numMachines];
+            for (int job = 0; job < instance.numJobs; job++) {
+                int remaining = 0;
+                assert instance.remainingWork(job, instance.numTasks) == 0;
+                for (int task = instance.numTasks - 1; task >= 0; task--) {
+                    int id = instance.taskId(job, task);
+                    int machine = instance.machine(job, task);
+                    assert instance.duration(id) == instance.duration(job, task);
+                    assert instance.machine(id) == machine;
+                    assert instance.task_with_machine(job, machine) == task;
+                    remaining += instance.duration(job, task);
+                    assert instance.remainingWork(job, task) == remaining;
+                    machineLoads[machine] += instance.duration(job, task);
+                }
+                assert instance.jobLoad(job) == remaining;
+            }
+            for (int machine = 0; machine < instance.numMachines; machine++) {
+                assert instance.machineLoad(machine) == machineLoads[machine];
+            }
+        }
+    }
 }
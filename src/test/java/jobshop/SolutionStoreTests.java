@@ -0,0 +1,54 @@
+package jobshop;
+
+import jobshop.encodings.Schedule;
+import jobshop.solvers.BasicSolver;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.Solver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class SolutionStoreTests {
+
+    /** Only improving solutions are recorded, and a warm started solver starts from the recorded one. */
+    @Test
+    public void testStoreAndWarmStart() throws IOException {
+        Path dir = Files.createTempDirectory("store");
+        try {
+            Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+            SolutionStore store = new SolutionStore(dir);
+            Schedule basic = new BasicSolver().solve(instance, Long.MAX_VALUE).get();
+            Schedule greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get();
+            assert greedy.makespan() < basic.makespan();
+
+            assert store.best(instance, "config").isEmpty();
+            boolean recorded = store.offer(instance, "config", greedy);
+            assert recorded;
+            recorded = store.offer(instance, "config", basic);
+            assert !recorded : "A worse solution should not be recorded";
+            assert store.best(instance, "config").get().equals(greedy);
+            assert store.best(instance, "other").isEmpty() : "Solutions are recorded per configuration";
+
+            Solver warm = store.warmStart("config", new BasicSolver());
+            assert warm.solve(instance, Long.MAX_VALUE).get().equals(greedy);
+            Solver cold = store.warmStart("other", new BasicSolver());
+            assert cold.solve(instance, Long.MAX_VALUE).get().equals(basic);
+
+            // a corrupted file is ignored and replaced
+            Files.write(dir.resolve("ft10").resolve("config.sol"), new byte[] {1, 2, 3});
+            assert store.best(instance, "config").isEmpty();
+            recorded = store.offer(instance, "config", basic);
+            assert recorded;
+            assert store.best(instance, "config").get().equals(basic);
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+}
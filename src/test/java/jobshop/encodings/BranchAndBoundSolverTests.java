@@ -0,0 +1,44 @@
+package jobshop.encodings;
+
+import jobshop.BestKnownResults;
+import jobshop.Instance;
+import jobshop.solvers.BranchAndBoundSolver;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class BranchAndBoundSolverTests {
+
+    /** Starting from a poor greedy solution, the optimum of small instances should be found and proven. */
+    @Test
+    public void testOptimum() throws IOException {
+        for(String instanceName : new String[] {"aaa1", "ft06", "la01", "la05"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            for(int parallelism : new int[] {1, 2}) {
+                BranchAndBoundSolver solver = new BranchAndBoundSolver(new GreedySolver(GreedySolver.Priority.SPT), parallelism);
+                Schedule result = solver.solve(instance, System.currentTimeMillis() + 60_000).get();
+                assert result.isValid();
+                assert solver.lastProvenOptimal() : "Optimality not proven on " + instanceName;
+                if(BestKnownResults.isKnown(instanceName)) {
+                    assert result.makespan() == BestKnownResults.of(instanceName) : "Wrong optimum on " + instanceName;
+                }
+            }
+        }
+    }
+
+    /** When the deadline is reached, the best solution found so far is returned. */
+    @Test
+    public void testDeadline() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/la02"));
+        Schedule greedy = new GreedySolver(GreedySolver.Priority.SPT).solve(instance, -1).get();
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(new GreedySolver(GreedySolver.Priority.SPT), 1);
+        long start = System.currentTimeMillis();
+        Schedule result = solver.solve(instance, start + 200).get();
+        assert System.currentTimeMillis() - start < 2000;
+        assert result.isValid();
+        assert result.makespan() <= greedy.makespan();
+        assert !solver.lastProvenOptimal();
+    }
+}
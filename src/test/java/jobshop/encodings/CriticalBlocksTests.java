@@ -0,0 +1,57 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.neighborhood.CriticalBlocks;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class CriticalBlocksTests {
+
+    /** The critical path should be the one of the schedule, and the blocks all its maximal runs on a machine. */
+    @Test
+    public void testCriticalBlocks() throws IOException {
+        for(String instanceName : new String[] {"aaa1", "ft06", "ft10", "ft20", "la01", "la40", "ta01", "ta51"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            for(GreedySolver.Priority priority : GreedySolver.Priority.values()) {
+                Schedule schedule = new GreedySolver(priority).solve(instance, Long.MAX_VALUE).get();
+                ResourceOrder order = new ResourceOrder(schedule);
+
+                Decoder decoder = new Decoder();
+                boolean acyclic = decoder.decode(order);
+                assert acyclic;
+                CriticalBlocks blocks = new CriticalBlocks();
+                blocks.extract(decoder, order);
+
+                List<Task> expected = schedule.criticalPath();
+                assert blocks.pathLength() == expected.size() : "Wrong critical path on " + instanceName;
+                for(int i = 0 ; i < expected.size() ; i++) {
+                    Task t = expected.get(i);
+                    assert blocks.pathTask(i) == t.job * instance.numTasks + t.task : "Wrong critical path on " + instanceName;
+                }
+
+                // walk along the path and check that each run of at least two tasks is the next block
+                int b = 0;
+                int i = 0;
+                while(i < expected.size()) {
+                    int machine = instance.machine(expected.get(i));
+                    int j = i;
+                    while(j + 1 < expected.size() && instance.machine(expected.get(j + 1)) == machine) j++;
+                    if(j > i) {
+                        assert b < blocks.numBlocks() : "Missing block on " + instanceName;
+                        assert blocks.machine(b) == machine;
+                        assert blocks.firstPosition(b) == order.getPosition(expected.get(i).job, expected.get(i).task);
+                        assert blocks.lastPosition(b) == order.getPosition(expected.get(j).job, expected.get(j).task);
+                        assert blocks.lastPosition(b) - blocks.firstPosition(b) == j - i;
+                        b++;
+                    }
+                    i = j + 1;
+                }
+                assert b == blocks.numBlocks() : "Unexpected block on " + instanceName;
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Optional;
 
 public class GreedySolverTests {
@@ -124,4 +125,58 @@ public class GreedySolverTests {
         assert minFound <= 56 : "The greedy solver SPT should have produced a makespan of 56 for this instance.";
 
     }
+
+    /** Checks the heap based dispatching against a naive scan of all schedulable tasks at each step. */
+    @Test
+    public void testGreedySolverMatchesLinearScan() throws IOException {
+        for(String instanceName : new String[] {"aaa3", "ft10", "la21", "orb05", "ta41"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            for(GreedySolver.Priority priority : GreedySolver.Priority.values()) {
+                Schedule schedule = new GreedySolver(priority).solve(instance, System.currentTimeMillis() + 10).get();
+                assert schedule.isValid() : "The solution is not valid";
+                assert schedule.equals(linearScanGreedy(instance, priority)) : "Wrong schedule for " + priority + " on " + instanceName;
+            }
+        }
+    }
+
+    /** Reference greedy solver that scans all schedulable tasks to find the one with the best priority. */
+    private static Schedule linearScanGreedy(Instance instance, GreedySolver.Priority priority) {
+        boolean est = priority.name().startsWith("EST_");
+        String rule = priority.name().replace("EST_", "");
+        ResourceOrder order = new ResourceOrder(instance);
+        int[] nextTask = new int[instance.numJobs];
+        int[] machineFree = new int[instance.numMachines];
+        int[] jobFree = new int[instance.numJobs];
+
+        for(int step = 0 ; step < instance.numJobs * instance.numTasks ; step++) {
+            int bestJob = -1;
+            int[] bestKey = null;
+            for(int job = 0 ; job < instance.numJobs ; job++) {
+                int task = nextTask[job];
+                if(task == instance.numTasks) continue;
+                int remaining = 0;
+                for(int t = task ; t < instance.numTasks ; t++) remaining += instance.duration(job, t);
+                int duration = instance.duration(job, task);
+                int start = est ? Math.max(machineFree[instance.machine(job, task)], jobFree[job]) : 0;
+                int[] key;
+                switch (rule) {
+                    case "SPT": key = new int[] {start, duration, task, job}; break;
+                    case "LPT": key = new int[] {start, -duration, task, job}; break;
+                    case "SRPT": key = new int[] {start, remaining, 0, job}; break;
+                    default: key = new int[] {start, -remaining, 0, job}; break;
+                }
+                if(bestKey == null || Arrays.compare(key, bestKey) < 0) {
+                    bestKey = key;
+                    bestJob = job;
+                }
+            }
+            int task = nextTask[bestJob]++;
+            int machine = instance.machine(bestJob, task);
+            order.addTaskToMachine(machine, new Task(bestJob, task));
+            int end = Math.max(machineFree[machine], jobFree[bestJob]) + instance.duration(bestJob, task);
+            machineFree[machine] = end;
+            jobFree[bestJob] = end;
+        }
+        return order.toSchedule().get();
+    }
 }
@@ -0,0 +1,124 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.DescentSolver;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.neighborhood.BalasVazacopoulos;
+import jobshop.solvers.neighborhood.InsertionNeighborhood;
+import jobshop.solvers.neighborhood.Neighborhood;
+import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+import jobshop.solvers.neighborhood.Zhang;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+
+public class InsertionNeighborhoodTests {
+
+    private static final String[] INSTANCES = {"aaa1", "ft06", "ft10", "ft20", "la01", "la40", "ta01", "ta51"};
+
+    @Test
+    public void testMoveTask() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        ResourceOrder order = new ResourceOrder(new GreedySolver(GreedySolver.Priority.SPT).solve(instance, -1).get());
+        ResourceOrder moved = order.copy();
+        moved.moveTask(2, 1, 4);
+        moved.moveTask(2, 4, 1);
+        assert moved.equals(order);
+
+        moved.moveTask(3, 0, 5);
+        for(int i = 0 ; i < 5 ; i++) {
+            assert moved.getTaskOfMachine(3, i).equals(order.getTaskOfMachine(3, i + 1));
+        }
+        assert moved.getTaskOfMachine(3, 5).equals(order.getTaskOfMachine(3, 0));
+        for(int i = 0 ; i < instance.numJobs ; i++) {
+            Task t = moved.getTaskOfMachine(3, i);
+            assert moved.getPosition(t.job, t.task) == i;
+        }
+    }
+
+    /** Applying a move in place should give the generated neighbor, and undoing it the original order. */
+    @Test
+    public void testApplyUndo() throws IOException {
+        for(String instanceName : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            ResourceOrder order = new ResourceOrder(new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, -1).get());
+            ResourceOrder original = order.copy();
+            for(Neighborhood neighborhood : new Neighborhood[] {new Nowicki(), new BalasVazacopoulos(), new Zhang()}) {
+                List<? extends Neighborhood.Move> moves = neighborhood.moves(order);
+                List<ResourceOrder> neighbors = neighborhood.generateNeighbors(order);
+                assert moves.size() == neighbors.size();
+                for(int i = 0 ; i < moves.size() ; i++) {
+                    moves.get(i).apply(order);
+                    assert order.equals(neighbors.get(i));
+                    moves.get(i).undo(order);
+                    assert order.equals(original) : "Move not undone on " + instanceName;
+                }
+            }
+        }
+    }
+
+    /** All generated neighbors should be distinct and acyclic, and N7 should contain N6. */
+    @Test
+    public void testNeighborsAreAcyclic() throws IOException {
+        for(String instanceName : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            for(GreedySolver.Priority priority : GreedySolver.Priority.values()) {
+                ResourceOrder order = new ResourceOrder(new GreedySolver(priority).solve(instance, -1).get());
+                List<ResourceOrder> n6 = new BalasVazacopoulos().generateNeighbors(order);
+                List<ResourceOrder> n7 = new Zhang().generateNeighbors(order);
+                for(ResourceOrder neighbor : n7) {
+                    assert neighbor.toSchedule().isPresent() : "Cyclic neighbor on " + instanceName;
+                    assert !neighbor.equals(order);
+                }
+                assert new HashSet<>(n6).size() == n6.size() : "Duplicated neighbor on " + instanceName;
+                assert new HashSet<>(n7).size() == n7.size() : "Duplicated neighbor on " + instanceName;
+                assert new HashSet<>(n7).containsAll(n6);
+            }
+        }
+    }
+
+    /** The estimate should be exact when the critical path of the neighbor goes through the moved segment. */
+    @Test
+    public void testEstimate() throws IOException {
+        for(String instanceName : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            ResourceOrder order = new ResourceOrder(new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, -1).get());
+            SwapEvaluator evaluator = new SwapEvaluator(instance);
+            boolean acyclic = evaluator.reset(order);
+            assert acyclic;
+            for(InsertionNeighborhood.Insertion move : new Zhang().allInsertions(order, evaluator)) {
+                Schedule neighbor = move.generateFrom(order).toSchedule().get();
+                int estimate = evaluator.estimate(move);
+                boolean throughSegment = false;
+                for(Task t : neighbor.criticalPath()) {
+                    int position = order.getPosition(t.job, t.task);
+                    if(instance.machine(t) == move.machine && position >= Math.min(move.from, move.to)
+                            && position <= Math.max(move.from, move.to)) {
+                        throughSegment = true;
+                    }
+                }
+                if(throughSegment) {
+                    assert estimate <= neighbor.makespan() : "Estimate above the makespan on " + instanceName;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDescent() throws IOException {
+        for(String instanceName : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            Schedule greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, -1).get();
+            for(InsertionNeighborhood neighborhood : new InsertionNeighborhood[] {new BalasVazacopoulos(), new Zhang()}) {
+                Schedule result = new DescentSolver(neighborhood, new GreedySolver(GreedySolver.Priority.EST_LRPT))
+                        .solve(instance, Long.MAX_VALUE).get();
+                assert result.isValid();
+                assert result.makespan() <= greedy.makespan();
+            }
+        }
+    }
+}
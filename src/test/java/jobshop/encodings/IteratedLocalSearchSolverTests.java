@@ -0,0 +1,38 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.DescentSolver;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.IteratedLocalSearchSolver;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+public class IteratedLocalSearchSolverTests {
+
+    /** All kicks and acceptance criteria should give valid solutions at least as good as a single descent. */
+    @Test
+    public void testIteratedLocalSearch() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        int descent = new DescentSolver(new Nowicki(), new GreedySolver(GreedySolver.Priority.EST_LRPT))
+                .solve(instance, Long.MAX_VALUE).get().makespan();
+
+        for(IteratedLocalSearchSolver.Kick kick : IteratedLocalSearchSolver.Kick.values()) {
+            for(IteratedLocalSearchSolver.Acceptance acceptance : IteratedLocalSearchSolver.Acceptance.values()) {
+                IteratedLocalSearchSolver solver = new IteratedLocalSearchSolver(new Nowicki(),
+                        GreedySolver.Priority.EST_LRPT, kick, acceptance, 2, 20, 0);
+                long deadline = System.currentTimeMillis() + 200;
+                Optional<Schedule> result = solver.solve(instance, deadline);
+                assert System.currentTimeMillis() < deadline + 100 : "The solver should stop at the deadline";
+
+                assert result.isPresent() : "The solver did not find a solution";
+                assert result.get().isValid() : "The solution is not valid";
+                assert result.get().makespan() <= descent : "The search should not be worse than its first descent";
+                assert solver.lastIterations() > 1 : "The search should perform several kicks before the deadline";
+            }
+        }
+    }
+}
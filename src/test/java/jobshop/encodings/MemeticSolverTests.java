@@ -0,0 +1,58 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.MemeticSolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class MemeticSolverTests {
+
+    /** Decoding the sequence of a decoded schedule should give back the same schedule. */
+    @Test
+    public void testJobNumbers() throws IOException {
+        for(String instanceName : new String[] {"aaa1", "ft06", "ft10", "la40", "ta51"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            for(GreedySolver.Priority priority : GreedySolver.Priority.values()) {
+                Schedule schedule = new GreedySolver(priority).solve(instance, -1).get();
+                JobNumbers sequence = JobNumbers.fromSchedule(schedule);
+                Schedule decoded = sequence.toSchedule().get();
+                assert decoded.isValid();
+                assert decoded.equals(schedule) : "Round trip failed on " + instanceName;
+                assert sequence.makespan() == schedule.makespan();
+            }
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testInvalidJobNumbers() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+        new JobNumbers(instance, new int[] {0, 0, 0, 0, 1, 1});
+    }
+
+    /** With a limited number of generations, the result should not depend on the number of workers. */
+    @Test
+    public void testMemetic() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        int greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, -1).get().makespan();
+        for(MemeticSolver.Crossover crossover : MemeticSolver.Crossover.values()) {
+            MemeticSolver sequential = new MemeticSolver(crossover, 8, 50, 10, 1, 3, 0);
+            Schedule first = sequential.solve(instance, Long.MAX_VALUE).get();
+            assert first.isValid();
+            assert first.makespan() < greedy;
+            assert sequential.lastGenerations() == 3;
+
+            Schedule parallel = new MemeticSolver(crossover, 8, 50, 10, 2, 3, 0).solve(instance, Long.MAX_VALUE).get();
+            assert parallel.equals(first) : "The result should not depend on the number of workers";
+        }
+
+        // with a deadline, the search stops on time
+        long deadline = System.currentTimeMillis() + 300;
+        Schedule timed = new MemeticSolver(MemeticSolver.Crossover.POX, 8, 50, 10, 2, Long.MAX_VALUE, 1)
+                .solve(instance, deadline).get();
+        assert System.currentTimeMillis() < deadline + 500;
+        assert timed.isValid();
+    }
+}
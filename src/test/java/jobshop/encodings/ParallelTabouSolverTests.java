@@ -0,0 +1,33 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.ParallelTabouSolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Optional;
+
+public class ParallelTabouSolverTests {
+
+    @Test
+    public void testParallelTabouSolver() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+
+        ParallelTabouSolver solver = new ParallelTabouSolver(GreedySolver.Priority.EST_LRPT, 6, 50, 10);
+        Optional<Schedule> result = solver.solve(instance, System.currentTimeMillis() + 500);
+
+        assert result.isPresent() : "The solver did not find a solution";
+        Schedule schedule = result.get();
+        assert schedule.isValid() : "The solution is not valid";
+
+        Schedule greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get();
+        assert schedule.makespan() <= greedy.makespan() : "The tabu search should not degrade its starting point";
+
+        long[] iterations = solver.iterationsPerWorker();
+        assert iterations.length == 6;
+        assert Arrays.stream(iterations).allMatch(i -> i >= 50) : "All workers should have done their iterations";
+    }
+}
@@ -0,0 +1,42 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class ResourceOrderTests {
+
+    /** Checks that positions are kept up to date by swaps and copies. */
+    @Test
+    public void testSwapAndCopy() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        Schedule schedule = new GreedySolver(GreedySolver.Priority.EST_SPT).solve(instance, Long.MAX_VALUE).get();
+        ResourceOrder order = new ResourceOrder(schedule);
+        assert order.toSchedule().get().equals(schedule) : "Converting back and forth should not change the schedule";
+
+        ResourceOrder copy = new ResourceOrder(instance);
+        order.copyInto(copy);
+        assert copy.equals(order);
+
+        Task first = order.getTaskOfMachine(3, 2);
+        Task second = order.getTaskOfMachine(3, 7);
+        copy.swapTasks(3, 2, 7);
+        assert !copy.equals(order) : "The original resource order must not be modified by a swap on the copy";
+        assert copy.getTaskOfMachine(3, 2).equals(second);
+        assert copy.getTaskOfMachine(3, 7).equals(first);
+        assert copy.getIndexOrder(3, first) == 7;
+        assert copy.getPosition(second.job, second.task) == 2;
+        assert copy.getIndexOrder(4, first) == -1 : "The task is not executed on machine 4";
+
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i < instance.numJobs ; i++) {
+                Task t = copy.getTaskOfMachine(m, i);
+                assert copy.getIndexOrder(m, t) == i;
+                assert copy.getJobOfMachine(m, i) == t.job;
+            }
+        }
+    }
+}
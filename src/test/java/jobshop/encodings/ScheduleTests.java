@@ -0,0 +1,64 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class ScheduleTests {
+
+    /** Reference implementation of the validity check, comparing all pairs of tasks of each machine. */
+    private static boolean pairwiseValid(Schedule schedule) {
+        Instance instance = schedule.instance;
+        for(int j = 0; j < instance.numJobs ; j++) {
+            for(int t = 0; t < instance.numTasks ; t++) {
+                if(schedule.startTime(j, t) < 0) return false;
+                if(t > 0 && schedule.endTime(j, t-1) > schedule.startTime(j, t)) return false;
+            }
+        }
+        for(int machine = 0; machine < instance.numMachines ; machine++) {
+            for(int j1 = 0; j1 < instance.numJobs ; j1++) {
+                int t1 = instance.task_with_machine(j1, machine);
+                for(int j2 = j1+1; j2 < instance.numJobs ; j2++) {
+                    int t2 = instance.task_with_machine(j2, machine);
+                    if(schedule.endTime(j1, t1) > schedule.startTime(j2, t2)
+                            && schedule.endTime(j2, t2) > schedule.startTime(j1, t1))
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** The fast validity checks should agree with the pairwise one, on valid and invalid schedules. */
+    @Test
+    public void testValidity() throws IOException {
+        Random random = new Random(0);
+        for(String instanceName : new String[] {"aaa1", "ft06", "ft10", "la01", "ta01"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            Schedule schedule = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get();
+            ResourceOrder order = new ResourceOrder(schedule);
+            assert schedule.isDecoded() : "A schedule built by the decoder should be marked as such";
+            assert schedule.isValid();
+            assert schedule.isValid(order);
+
+            // randomly move tasks earlier or later
+            for(int i = 0 ; i < 200 ; i++) {
+                int job = random.nextInt(instance.numJobs);
+                int task = random.nextInt(instance.numTasks);
+                int start = schedule.startTime(job, task);
+                schedule.setStartTime(job, task, Math.max(0, start + random.nextInt(21) - 10));
+                assert !schedule.isDecoded() : "A modified schedule is not trusted anymore";
+
+                boolean expected = pairwiseValid(schedule);
+                assert schedule.isValid() == expected : "Wrong validity on " + instanceName;
+                // the order of the tasks on the machines is the one of the original schedule
+                if(schedule.isValid(order)) assert expected;
+                schedule.setStartTime(job, task, start);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.OneMachine;
+import jobshop.solvers.ShiftingBottleneckSolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class ShiftingBottleneckSolverTests {
+
+    // value of the best permutation of the tasks, by exhaustive search
+    private static int bruteForce(int[] r, int[] p, int[] q, int[] sequence, int k) {
+        if(k == sequence.length) return OneMachine.evaluate(r, p, q, sequence);
+        int best = Integer.MAX_VALUE;
+        for(int i = k ; i < sequence.length ; i++) {
+            int tmp = sequence[k]; sequence[k] = sequence[i]; sequence[i] = tmp;
+            best = Math.min(best, bruteForce(r, p, q, sequence, k + 1));
+            tmp = sequence[k]; sequence[k] = sequence[i]; sequence[i] = tmp;
+        }
+        return best;
+    }
+
+    /** Carlier's branch and bound should be optimal on small random problems, and Schrage's schedule above it. */
+    @Test
+    public void testOneMachine() {
+        Random random = new Random(0);
+        for(int test = 0 ; test < 200 ; test++) {
+            int n = 1 + random.nextInt(7);
+            int[] r = new int[n], p = new int[n], q = new int[n];
+            for(int i = 0 ; i < n ; i++) {
+                r[i] = random.nextInt(30);
+                p[i] = 1 + random.nextInt(10);
+                q[i] = random.nextInt(30);
+            }
+            int[] identity = new int[n];
+            for(int i = 0 ; i < n ; i++) identity[i] = i;
+            int optimum = bruteForce(r, p, q, identity, 0);
+
+            int[] sequence = new int[n];
+            int schrage = OneMachine.schrage(r, p, q, sequence);
+            assert schrage == OneMachine.evaluate(r, p, q, sequence);
+            assert schrage >= optimum;
+            int carlier = OneMachine.carlier(r, p, q, sequence, Integer.MAX_VALUE);
+            assert carlier == optimum : "Carlier found " + carlier + " instead of " + optimum;
+            assert carlier == OneMachine.evaluate(r, p, q, sequence);
+            assert LowerBounds.preemptiveOneMachine(r, p, q) <= optimum;
+        }
+    }
+
+    @Test
+    public void testShiftingBottleneck() throws IOException {
+        for(String instanceName : new String[] {"aaa1", "ft06", "ft10", "la40", "ta01", "ta51"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            Schedule result = new ShiftingBottleneckSolver(1, 100).solve(instance, Long.MAX_VALUE).get();
+            assert result.isValid() : "Invalid solution on " + instanceName;
+            assert result.makespan() >= LowerBounds.of(instance);
+        }
+        // on ft10, the shifting bottleneck is much better than the greedy solvers
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        int greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, -1).get().makespan();
+        assert new ShiftingBottleneckSolver(1, 100).solve(instance, Long.MAX_VALUE).get().makespan() < greedy;
+
+        // after the deadline, the machines are still all sequenced
+        Schedule late = new ShiftingBottleneckSolver(1, 100).solve(instance, -1).get();
+        assert late.isValid();
+    }
+}
@@ -0,0 +1,36 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.SimulatedAnnealingSolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class SimulatedAnnealingSolverTests {
+
+    @Test
+    public void testSimulatedAnnealing() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        int greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT).solve(instance, Long.MAX_VALUE).get().makespan();
+
+        // without deadline, the cooling only depends on the number of steps and the search can be reproduced
+        SimulatedAnnealingSolver solver = new SimulatedAnnealingSolver(GreedySolver.Priority.EST_LRPT, 20000, 0);
+        Schedule first = solver.solve(instance, Long.MAX_VALUE).get();
+        assert first.isValid() : "The solution is not valid";
+        assert first.makespan() < greedy : "The search should improve the greedy solution";
+        assert solver.lastIterations() <= 20000;
+        assert solver.solve(instance, Long.MAX_VALUE).get().equals(first) : "The search should be reproducible";
+        // a deadline that is far away should not change the cooling either
+        assert solver.solve(instance, Long.MAX_VALUE / 2).get().equals(first) : "A far deadline should not matter";
+
+        // with a deadline, the search stops on time
+        solver = new SimulatedAnnealingSolver(GreedySolver.Priority.EST_LRPT, Long.MAX_VALUE, 1);
+        long deadline = System.currentTimeMillis() + 200;
+        Schedule timed = solver.solve(instance, deadline).get();
+        assert System.currentTimeMillis() < deadline + 100 : "The solver should stop at the deadline";
+        assert timed.isValid() : "The solution is not valid";
+        assert timed.makespan() < greedy;
+    }
+}
@@ -0,0 +1,50 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.Solver;
+import jobshop.solvers.neighborhood.Nowicki;
+import jobshop.solvers.neighborhood.SwapEvaluator;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+public class SwapEvaluatorTests {
+
+    /** Checks the incremental evaluation of every Nowicki swap against a complete decoding of the neighbor. */
+    @Test
+    public void testSwapEvaluation() throws IOException {
+        for(String instanceName : new String[] {"ft06", "ft10", "la01", "la40", "ta01", "ta51"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances", instanceName));
+            Solver solver = new GreedySolver(GreedySolver.Priority.EST_LRPT);
+            Optional<Schedule> result = solver.solve(instance, System.currentTimeMillis() + 10);
+            assert result.isPresent() : "The solver did not find a solution";
+
+            ResourceOrder order = new ResourceOrder(result.get());
+            SwapEvaluator evaluator = new SwapEvaluator(instance);
+            Nowicki nowicki = new Nowicki();
+
+            // walk a few steps through the neighborhood to test different resource orders
+            for(int step = 0 ; step < 20 ; step++) {
+                boolean acyclic = evaluator.reset(order);
+                assert acyclic : "The resource order should not contain any cycle";
+                assert evaluator.makespan() == order.toSchedule().get().makespan();
+
+                Nowicki.Swap next = null;
+                for(Nowicki.Swap swap : nowicki.allSwaps(order)) {
+                    Optional<Schedule> neighbor = swap.generateFrom(order).toSchedule();
+                    assert neighbor.isPresent() : "A swap of the critical path should never create a cycle";
+                    assert neighbor.get().isValid() : "The decoded schedule is not valid";
+                    int exact = neighbor.get().makespan();
+                    assert evaluator.makespan(swap) == exact : "Wrong incremental makespan on " + instanceName;
+                    assert evaluator.lowerBound(swap) <= exact : "The estimate should be a lower bound";
+                    next = swap;
+                }
+                if(next == null) break;
+                order = next.generateFrom(order);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.Solver;
+import jobshop.solvers.TabouSolver;
+import jobshop.solvers.neighborhood.Nowicki;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+public class TabouSolverTests {
+
+    @Test
+    public void testTabouSolver() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+
+        Solver greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT);
+        Solver solver = new TabouSolver(new Nowicki(), greedy, 200, 10);
+        Optional<Schedule> result = solver.solve(instance, System.currentTimeMillis() + 100);
+
+        assert result.isPresent() : "The solver did not find a solution";
+        Schedule schedule = result.get();
+        assert schedule.isValid() : "The solution is not valid";
+        assert schedule.makespan() <= greedy.solve(instance, Long.MAX_VALUE).get().makespan();
+    }
+
+    /** The parallel evaluation of the neighbors should lead to the exact same search as the sequential one. */
+    @Test
+    public void testParallelEvaluationIsDeterministic() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ta21"));
+
+        Solver greedy = new GreedySolver(GreedySolver.Priority.EST_LRPT);
+        // no deadline: both solvers do exactly 100 iterations
+        Schedule sequential = new TabouSolver(new Nowicki(), greedy, 100, 10, 1).solve(instance, Long.MAX_VALUE).get();
+        for(int threads : new int[] {2, 4}) {
+            Schedule parallel = new TabouSolver(new Nowicki(), greedy, 100, 10, threads).solve(instance, Long.MAX_VALUE).get();
+            assert parallel.isValid() : "The solution is not valid";
+            assert parallel.equals(sequential) : "The result should not depend on the number of threads";
+        }
+    }
+}